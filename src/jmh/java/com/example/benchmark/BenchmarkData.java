@@ -0,0 +1,76 @@
+package com.example.benchmark;
+
+import com.example.model.Address;
+import com.example.model.Customer;
+import com.example.model.Submission;
+import com.example.model.SubmissionItem;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Representative rows and entities shared by the benchmarks, shaped like production data.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A row as returned by the native customer queries (CUSTOMER_COLUMNS order).
+     */
+    public static Object[] customerRow(int i) {
+        Timestamp created = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i));
+        return new Object[] {
+            UUID.nameUUIDFromBytes(("customer-" + i).getBytes()),
+            "customer" + i + "@example.com", "+44 7700 900" + String.format("%03d", i % 1000), "Customer Number " + i,
+            "1 High Street", null, "London", "Greater London", "SW1A 1AA", "GB",
+            "2 Low Road", "Flat " + i, "Leeds", "West Yorkshire", "LS1 1AA", "GB",
+            Boolean.TRUE, "ACTIVE", created, created, null, 3L
+        };
+    }
+
+    public static Customer customer(int i) {
+        Customer customer = new Customer();
+        customer.setCustomerId(UUID.nameUUIDFromBytes(("customer-" + i).getBytes()));
+        customer.setEmail("customer" + i + "@example.com");
+        customer.setPhone("+44 7700 900" + String.format("%03d", i % 1000));
+        customer.setFullName("Customer Number " + i);
+        customer.setBillingAddress(address("1 High Street", "London"));
+        customer.setShippingAddress(address("2 Low Road", "Leeds"));
+        customer.setMarketingOptIn(true);
+        customer.setStatus(Customer.CustomerStatus.ACTIVE);
+        customer.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i));
+        customer.setUpdatedAt(customer.getCreatedAt());
+        customer.setVersion(3L);
+        return customer;
+    }
+
+    public static SubmissionItem submissionItem(int i) {
+        Submission submission = new Submission();
+        submission.setSubmissionId(UUID.nameUUIDFromBytes(("submission-" + i).getBytes()));
+        SubmissionItem item = new SubmissionItem();
+        item.setItemId(UUID.nameUUIDFromBytes(("item-" + i).getBytes()));
+        item.setSubmission(submission);
+        item.setLineNumber(i);
+        item.setGame(SubmissionItem.GameType.POKEMON);
+        item.setFreeTextLine("Charizard 4/102 Base Set Holo 1st Edition");
+        item.setCustomerNotes("Slight whitening on the back");
+        item.setRequestedPhotoSlots(2);
+        item.setEnrichmentStatus(SubmissionItem.EnrichmentStatus.MATCHED);
+        item.setEnrichmentConfidence(0.97);
+        item.setMatchedCatalogId("base1-4");
+        item.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        return item;
+    }
+
+    private static Address address(String line1, String city) {
+        Address address = new Address();
+        address.setLine1(line1);
+        address.setCity(city);
+        address.setPostcode("AB1 2CD");
+        address.setCountry("GB");
+        return address;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.benchmark;
+
+import com.example.dto.CustomerListResponse;
+import com.example.dto.CustomerResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON serialization of a list page at the default (50) and maximum (200) page sizes,
+ * with an ObjectMapper configured the way Spring Boot configures the application's.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerListSerializationBenchmark {
+
+    @Param({"50", "200"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private CustomerListResponse page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<CustomerResponse> customers = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            customers.add(CustomerResponse.fromEntity(BenchmarkData.customer(i)));
+        }
+        page = CustomerListResponse.builder()
+                .items(customers)
+                .nextCursor("Y3JlYXRlZF9hdHxkZXNjfDk1MjQwMTc0LTQzYzAtNGY3NS1hNzE2LWEyZjcwMWU3YzlmZHwyMDI0LTAxLTAxVDA5OjQy")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.benchmark;
+
+import com.example.dto.CustomerResponse;
+import com.example.dto.SubmissionItemLite;
+import com.example.model.Customer;
+import com.example.model.SubmissionItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Entity to response DTO conversion, run once per item in every response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private Customer customer;
+    private SubmissionItem submissionItem;
+
+    @Setup
+    public void setUp() {
+        customer = BenchmarkData.customer(42);
+        submissionItem = BenchmarkData.submissionItem(42);
+    }
+
+    @Benchmark
+    public CustomerResponse customerResponseFromEntity() {
+        return CustomerResponse.fromEntity(customer);
+    }
+
+    @Benchmark
+    public SubmissionItemLite submissionItemLiteFromEntity() {
+        return SubmissionItemLite.fromEntity(submissionItem);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.benchmark;
+
+import com.example.model.Submission;
+import com.example.model.SubmissionStatusConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Status parsing, hit on every submission row loaded (converter) and every status filter (fromDisplayValue).
+ * Covers the first and last display values, an enum name (the fallback path) and a legacy value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubmissionStatusBenchmark {
+
+    @Param({"submitted-not yet received", "posted", "GRADING_STARTED", "COMPLETED"})
+    public String value;
+
+    private final SubmissionStatusConverter converter = new SubmissionStatusConverter();
+
+    @Benchmark
+    public Submission.SubmissionStatus fromDisplayValue() {
+        // The legacy value only exists in the converter; fromDisplayValue rejects it
+        try {
+            return Submission.SubmissionStatus.fromDisplayValue(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Submission.SubmissionStatus convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(value);
+    }
+}
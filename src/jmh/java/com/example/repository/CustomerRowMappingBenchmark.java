@@ -0,0 +1,36 @@
+package com.example.repository;
+
+import com.example.benchmark.BenchmarkData;
+import com.example.model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of turning one native-query row into a Customer (runs once per row on every list page).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerRowMappingBenchmark {
+
+    private Object[] row;
+
+    @Setup
+    public void setUp() {
+        row = BenchmarkData.customerRow(42);
+    }
+
+    @Benchmark
+    public Customer mapResultToCustomer() {
+        return CustomerRepositoryImpl.mapResultToCustomer(row);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.service;
+
+import com.example.benchmark.BenchmarkData;
+import com.example.repository.CustomerKeyset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Keyset cursor round trip of listCustomers: nextCursor on the way out, the cursor parameter on the way in.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerCursorBenchmark {
+
+    private CustomerKeyset createdAtKeyset;
+    private CustomerKeyset fullNameKeyset;
+    private String createdAtCursor;
+    private String fullNameCursor;
+
+    @Setup
+    public void setUp() {
+        createdAtKeyset = CustomerKeyset.firstPage(CustomerKeyset.CREATED_AT, false).after(BenchmarkData.customer(42));
+        fullNameKeyset = CustomerKeyset.firstPage(CustomerKeyset.FULL_NAME, true).after(BenchmarkData.customer(42));
+        createdAtCursor = CustomerService.toCursor(createdAtKeyset);
+        fullNameCursor = CustomerService.toCursor(fullNameKeyset);
+    }
+
+    @Benchmark
+    public String encodeCreatedAt() {
+        return CustomerService.toCursor(createdAtKeyset);
+    }
+
+    @Benchmark
+    public CustomerKeyset decodeCreatedAt() {
+        return CustomerService.fromCursor(createdAtCursor, CustomerKeyset.CREATED_AT, false);
+    }
+
+    @Benchmark
+    public String encodeFullName() {
+        return CustomerService.toCursor(fullNameKeyset);
+    }
+
+    @Benchmark
+    public CustomerKeyset decodeFullName() {
+        return CustomerService.fromCursor(fullNameCursor, CustomerKeyset.FULL_NAME, true);
+    }
+}
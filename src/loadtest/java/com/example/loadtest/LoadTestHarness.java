@@ -0,0 +1,326 @@
+package com.example.loadtest;
+
+import com.example.HagsCustomerApplication;
+import com.example.model.Submission;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * End-to-end load test: boots the application against an embedded PostgreSQL (or the
+ * database given with --jdbc-url), seeds it, drives a mixed workload at a fixed arrival
+ * rate and reports latency percentiles, throughput and error rate per operationId.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rate=300 --duration=120 --customers=50000"
+ * </pre>
+ *
+ * Options (defaults in brackets):
+ * --customers [20000], --submissions [2000] seeded before the run;
+ * --rate [200] requests per second offered; --duration [60] and --warmup [15] seconds;
+ * --max-in-flight [2000]; --mix [see DEFAULT_MIX] as operationId=weight,...;
+ * --jdbc-url/--username/--password to run against an existing database instead;
+ * --report-dir [target/loadtest] for the summary and one .hlog histogram log per operation.
+ */
+public class LoadTestHarness {
+
+    private static final String DEFAULT_MIX = "createCustomer=5,lookupCustomerByEmail=20,typeaheadCustomers=20,"
+            + "listCustomers=25,updateCustomer=10,createSubmission=10,getItemsBySubmissionStatus=10";
+
+    private static final int SEED_BATCH_SIZE = 5000;
+    private static final int SEED_CONCURRENCY = 32;
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(16))
+            .build();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private String baseUrl;
+    private final List<UUID> customerIds = new ArrayList<>();
+    private final List<String> customerEmails = new ArrayList<>();
+
+    LoadTestHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTestHarness(options).run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        String username = options.getOrDefault("username", "postgres");
+        String password = options.getOrDefault("password", "postgres");
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+            System.out.println("LoadTest: Started embedded PostgreSQL on port " + postgres.getPort());
+        }
+
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "target/loadtest"));
+        Files.createDirectories(reportDir);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HagsCustomerApplication.class)
+                .profiles("dev")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=" + username,
+                        "spring.datasource.password=" + password,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.com.example=WARN",
+                        "customers.email-filter.snapshot-path=" + reportDir.resolve("email-filter.bin"))
+                .run()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            seedCustomers(intOption("customers", 20000));
+            seedSubmissions(intOption("submissions", 2000));
+
+            Map<String, OperationStats> stats = new LinkedHashMap<>();
+            OpenModelDriver driver = new OpenModelDriver(client, workload(stats), intOption("max-in-flight", 2000));
+            double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+
+            System.out.println("LoadTest: Warming up for " + intOption("warmup", 15) + "s");
+            driver.run(rate, intOption("warmup", 15));
+            stats.values().forEach(OperationStats::reset);
+
+            int duration = intOption("duration", 60);
+            System.out.println("LoadTest: Offering " + rate + " req/s for " + duration + "s");
+            long started = System.nanoTime();
+            driver.run(rate, duration);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            report(stats, rate, elapsedSeconds, reportDir);
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private List<OpenModelDriver.Operation> workload(Map<String, OperationStats> stats) {
+        Map<String, Supplier<HttpRequest>> requests = new LinkedHashMap<>();
+        requests.put("createCustomer", () -> post("/v1/customers", customerJson(nextEmail())));
+        requests.put("lookupCustomerByEmail", () -> get("/v1/customers/lookup?email=" + encode(randomEmail())));
+        requests.put("typeaheadCustomers", () -> get("/v1/customers/search?q="
+                + encode("Customer " + ThreadLocalRandom.current().nextInt(1, 1000))));
+        requests.put("listCustomers", () -> get("/v1/customers?limit=50&sort="
+                + (ThreadLocalRandom.current().nextBoolean() ? "created_at" : "full_name")));
+        requests.put("updateCustomer", () -> patch("/v1/customers/" + randomCustomerId(),
+                Map.of("phone", "+44 7700 " + ThreadLocalRandom.current().nextInt(100000, 999999))));
+        requests.put("createSubmission", () -> post("/v1/submissions", submissionJson(randomCustomerId())));
+        requests.put("getItemsBySubmissionStatus", () -> get("/v1/submissions/items?status="
+                + encode(randomStatus().getDisplayValue())));
+
+        List<OpenModelDriver.Operation> mix = new ArrayList<>();
+        for (String entry : options.getOrDefault("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split("=");
+            Supplier<HttpRequest> request = requests.get(parts[0]);
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown operationId in --mix: " + parts[0] + ", known: " + requests.keySet());
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                OperationStats operationStats = stats.computeIfAbsent(parts[0], OperationStats::new);
+                mix.add(new OpenModelDriver.Operation(parts[0], weight, request, operationStats));
+            }
+        }
+        return mix;
+    }
+
+    private void seedCustomers(int count) throws Exception {
+        System.out.println("LoadTest: Seeding " + count + " customers");
+        for (int offset = 0; offset < count; offset += SEED_BATCH_SIZE) {
+            StringBuilder ndjson = new StringBuilder();
+            List<String> emails = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + SEED_BATCH_SIZE); i++) {
+                String email = nextEmail();
+                emails.add(email);
+                ndjson.append(objectMapper.writeValueAsString(customerJson(email))).append('\n');
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/customers:batchCreate"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                    .build();
+            JsonNode response = objectMapper.readTree(send(request));
+            for (JsonNode row : response.get("results")) {
+                if ("CREATED".equals(row.get("outcome").asText())) {
+                    customerIds.add(UUID.fromString(row.get("customerId").asText()));
+                    customerEmails.add(emails.get(row.get("index").asInt()));
+                }
+            }
+        }
+        if (customerIds.isEmpty()) {
+            throw new IllegalStateException("Seeding created no customers");
+        }
+    }
+
+    private void seedSubmissions(int count) throws Exception {
+        System.out.println("LoadTest: Seeding " + count + " submissions");
+        Semaphore permits = new Semaphore(SEED_CONCURRENCY);
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.acquire();
+            pending.add(client.sendAsync(post("/v1/submissions", submissionJson(randomCustomerId())),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> permits.release()));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void report(Map<String, OperationStats> stats, double rate, double elapsedSeconds, Path reportDir) throws IOException {
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path summary = reportDir.resolve("summary-" + stamp + ".txt");
+        try (PrintStream file = new PrintStream(Files.newOutputStream(summary), true, StandardCharsets.UTF_8)) {
+            for (PrintStream out : List.of(System.out, file)) {
+                out.printf("Offered %.1f req/s for %.1fs; latency in ms from intended start%n", rate, elapsedSeconds);
+                out.printf("%-28s %9s %9s %8s %9s %9s %9s %9s %9s  %s%n",
+                        "operationId", "requests", "req/s", "errors", "p50", "p90", "p99", "p99.9", "max", "statuses");
+                long requests = 0;
+                for (OperationStats operation : stats.values()) {
+                    operation.printSummaryLine(out, elapsedSeconds);
+                    requests += operation.requests();
+                }
+                out.printf("%-28s %9d %9.1f%n", "total", requests, requests / elapsedSeconds);
+            }
+        }
+        for (OperationStats operation : stats.values()) {
+            Path log = reportDir.resolve(operation.operationId() + "-" + stamp + ".hlog");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(log), true, StandardCharsets.UTF_8)) {
+                HistogramLogWriter writer = new HistogramLogWriter(out);
+                writer.outputComment("operationId=" + operation.operationId() + ", values in microseconds");
+                writer.outputLogFormatVersion();
+                writer.outputLegend();
+                writer.outputIntervalHistogram(operation.total());
+            }
+        }
+        System.out.println("LoadTest: Reports written to " + reportDir.toAbsolutePath());
+    }
+
+    private Map<String, Object> customerJson(String email) {
+        long n = sequence.get();
+        Map<String, Object> customer = new LinkedHashMap<>();
+        customer.put("email", email);
+        customer.put("phone", "+44 7700 " + (100000 + n % 900000));
+        customer.put("fullName", "Customer " + n + " Loadtest");
+        customer.put("billingAddress", Map.of("line1", n + " High Street", "city", "London",
+                "postcode", "SW1A 1AA", "country", "GB"));
+        customer.put("marketingOptIn", n % 2 == 0);
+        return customer;
+    }
+
+    private Map<String, Object> submissionJson(UUID customerId) {
+        int itemCount = ThreadLocalRandom.current().nextInt(1, 6);
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(Map.of("game", "POKEMON", "freeTextLine", "Charizard 4/102 Base Set Holo #" + i,
+                    "requestedPhotoSlots", 2));
+        }
+        return Map.of("customerId", customerId.toString(), "serviceLevel", "BRONZE", "items", items);
+    }
+
+    private String nextEmail() {
+        return "lt-" + runId + "-" + sequence.incrementAndGet() + "@loadtest.example.com";
+    }
+
+    private UUID randomCustomerId() {
+        return customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size()));
+    }
+
+    private String randomEmail() {
+        return customerEmails.get(ThreadLocalRandom.current().nextInt(customerEmails.size()));
+    }
+
+    private static Submission.SubmissionStatus randomStatus() {
+        // Everything the harness creates starts in the first status, so weight it accordingly
+        Submission.SubmissionStatus[] statuses = Submission.SubmissionStatus.values();
+        return ThreadLocalRandom.current().nextInt(4) == 0
+                ? statuses[ThreadLocalRandom.current().nextInt(statuses.length)]
+                : Submission.SubmissionStatus.SUBMITTED_NOT_YET_RECEIVED;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return withBody(path, "POST", body);
+    }
+
+    private HttpRequest patch(String path, Object body) {
+        return withBody(path, "PATCH", body);
+    }
+
+    private HttpRequest withBody(String path, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
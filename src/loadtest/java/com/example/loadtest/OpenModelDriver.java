@@ -0,0 +1,113 @@
+package com.example.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load: requests start on a fixed schedule at the target rate whether or not
+ * earlier ones have finished, the way independent clients arrive in production. A slow
+ * server therefore builds up in-flight requests instead of quietly lowering the offered
+ * load. Past maxInFlight the driver drops arrivals (reported per operation) rather than
+ * waiting, which would turn it back into a closed model.
+ */
+class OpenModelDriver {
+
+    /**
+     * One weighted entry of the workload mix.
+     */
+    record Operation(String operationId, int weight, Supplier<HttpRequest> request, OperationStats stats) {
+    }
+
+    private final HttpClient client;
+    private final List<Operation> mix;
+    private final int totalWeight;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    OpenModelDriver(HttpClient client, List<Operation> mix, int maxInFlight) {
+        this.client = client;
+        this.mix = mix;
+        this.totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Offers {@code ratePerSecond} requests per second for {@code seconds}, then waits for stragglers.
+     */
+    void run(double ratePerSecond, long seconds) throws InterruptedException {
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long lastReport = start;
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(pick(), intendedStart);
+
+            long now = System.nanoTime();
+            if (now - lastReport >= TimeUnit.SECONDS.toNanos(10)) {
+                lastReport = now;
+                System.out.printf("LoadTest: %ds elapsed, %d in flight%n",
+                        TimeUnit.NANOSECONDS.toSeconds(now - start), inFlightCount());
+            }
+        }
+
+        // Give outstanding requests the client timeout to finish before reporting
+        if (!inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            System.err.println("WARNING: " + inFlightCount() + " request(s) still in flight at the end of the run");
+        } else {
+            inFlight.release(maxInFlight);
+        }
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : mix) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private void fire(Operation operation, long intendedStart) {
+        if (!inFlight.tryAcquire()) {
+            operation.stats().drop();
+            return;
+        }
+        HttpRequest request;
+        try {
+            request = operation.request().get();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            operation.stats().drop();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latencyMicros = (System.nanoTime() - intendedStart) / 1000;
+                    operation.stats().record(latencyMicros, error != null ? -1 : response.statusCode());
+                    inFlight.release();
+                });
+    }
+
+    private int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+}
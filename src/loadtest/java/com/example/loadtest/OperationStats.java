@@ -0,0 +1,111 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histogram and outcome counts for one operationId. Latencies are recorded in
+ * microseconds from the request's intended start, so queueing behind a slow server is
+ * counted against the server (no coordinated omission).
+ */
+class OperationStats {
+
+    private static final long MAX_TRACKABLE_MICROS = 120_000_000L;
+
+    private final String operationId;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+    OperationStats(String operationId) {
+        this.operationId = operationId;
+    }
+
+    String operationId() {
+        return operationId;
+    }
+
+    void record(long latencyMicros, int status) {
+        recorder.recordValue(Math.min(Math.max(latencyMicros, 1), MAX_TRACKABLE_MICROS));
+        requests.incrementAndGet();
+        statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+        if (status < 200 || status >= 400) {
+            errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * A request the driver could not start because too many were already in flight.
+     */
+    void drop() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Moves everything recorded since the last call into the run total and returns that interval.
+     */
+    synchronized Histogram interval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        return interval;
+    }
+
+    synchronized Histogram total() {
+        interval();
+        return total.copy();
+    }
+
+    void reset() {
+        synchronized (this) {
+            recorder.reset();
+            total.reset();
+        }
+        requests.set(0);
+        errors.set(0);
+        dropped.set(0);
+        statuses.clear();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.get()));
+        return counts;
+    }
+
+    void printSummaryLine(PrintStream out, double elapsedSeconds) {
+        Histogram histogram = total();
+        long sent = requests() + dropped();
+        out.printf("%-28s %9d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                operationId,
+                requests(),
+                requests() / elapsedSeconds,
+                sent == 0 ? 0.0 : 100.0 * (errors() + dropped()) / sent,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                statuses());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.loadtest;
+
+import com.example.HagsCustomerApplication;
+import com.example.dto.CustomerCreateRequest;
+import com.example.dto.SubmissionCreateRequestLite;
+import com.example.dto.SubmissionItemCreateLite;
+import com.example.model.SubmissionItem;
+import com.example.service.CustomerService;
+import com.example.service.SubmissionService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares the two write paths for POST /v1/submissions at growing item counts: JPA cascade
+ * (one INSERT per item, flushed at commit) against the batched JDBC insert
+ * (submissions.create.batched-insert). Calls SubmissionService directly, so item counts
+ * above the API's 500-item limit can be measured too.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.example.loadtest.SubmissionCreateBenchmark
+ * </pre>
+ *
+ * Options: --items [1,50,500,5000], --iterations [30] measured calls per size after
+ * --warmup [5] calls.
+ */
+public class SubmissionCreateBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1, 50, 500, 5000};
+        int iterations = 30;
+        int warmup = 5;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--items=")) {
+                String[] parts = value.split(",");
+                sizes = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    sizes[i] = Integer.parseInt(parts[i].trim());
+                }
+            } else if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-8s %7s %10s %10s %10s %12s", "path", "items", "mean ms", "p50 ms", "p99 ms", "items/s"));
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+            for (boolean batched : new boolean[] {false, true}) {
+                try (ConfigurableApplicationContext context = start(jdbcUrl, batched)) {
+                    SubmissionService submissions = context.getBean(SubmissionService.class);
+                    UUID customerId = seedCustomer(context.getBean(CustomerService.class));
+                    for (int size : sizes) {
+                        SubmissionCreateRequestLite request = request(customerId, size);
+                        for (int i = 0; i < warmup; i++) {
+                            submissions.createSubmission(request);
+                        }
+                        Histogram histogram = new Histogram(3);
+                        for (int i = 0; i < iterations; i++) {
+                            long start = System.nanoTime();
+                            submissions.createSubmission(request);
+                            histogram.recordValue((System.nanoTime() - start) / 1000);
+                        }
+                        double meanMs = histogram.getMean() / 1000.0;
+                        report.add(String.format("%-8s %7d %10.2f %10.2f %10.2f %12.0f",
+                                batched ? "jdbc" : "jpa", size, meanMs,
+                                histogram.getValueAtPercentile(50) / 1000.0,
+                                histogram.getValueAtPercentile(99) / 1000.0,
+                                size / (meanMs / 1000.0)));
+                    }
+                }
+            }
+        }
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(String jdbcUrl, boolean batched) {
+        return new SpringApplicationBuilder(HagsCustomerApplication.class)
+                .profiles("dev")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.com.example=WARN",
+                        "submissions.create.batched-insert=" + batched)
+                .run();
+    }
+
+    private static UUID seedCustomer(CustomerService customers) {
+        CustomerCreateRequest request = new CustomerCreateRequest();
+        request.setEmail("bench-" + UUID.randomUUID() + "@example.com");
+        request.setFullName("Submission Benchmark");
+        return customers.createCustomer(request).getCustomerId();
+    }
+
+    private static SubmissionCreateRequestLite request(UUID customerId, int size) {
+        List<SubmissionItemCreateLite> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SubmissionItemCreateLite item = new SubmissionItemCreateLite();
+            item.setGame(SubmissionItem.GameType.values()[i % SubmissionItem.GameType.values().length]);
+            item.setFreeTextLine("Benchmark card " + i + " holo 1st edition");
+            item.setFrontPhotoId("front-" + i);
+            item.setBackPhotoId("back-" + i);
+            items.add(item);
+        }
+        SubmissionCreateRequestLite request = new SubmissionCreateRequestLite();
+        request.setCustomerId(customerId);
+        request.setNotesCustomer("Submission benchmark");
+        request.setItems(items);
+        return request;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.loadtest;
+
+import com.example.HagsCustomerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares platform-thread and virtual-thread request execution under the same load.
+ *
+ * Boots the application twice against the database configured by the dev profile (once as
+ * configured, once with the vthreads profile), drives the DB-bound read endpoints with a
+ * fixed number of concurrent clients for a fixed duration and prints throughput, p50 and
+ * p99 latency and the number of non-2xx answers (503s from the permit limiter included).
+ *
+ * Run it with a Java 21 {@code java} on the PATH, e.g.
+ * <pre>
+ * mvn -Pjava21,loadtest test-compile exec:exec -Dloadtest.main=com.example.loadtest.ThreadModeBenchmark \
+ *     -Dloadtest.args="400 30"
+ * </pre>
+ * Arguments: concurrent clients (default 200), seconds per mode (default 30).
+ */
+public class ThreadModeBenchmark {
+
+    private static final String[] PATHS = {
+        "/v1/customers?limit=50",
+        "/v1/customers?limit=50&sort=full_name&order=asc",
+        "/v1/customers?limit=20&status=ACTIVE&count=exact",
+    };
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        if (Runtime.version().feature() < 21) {
+            System.err.println("WARNING: Running on Java " + Runtime.version().feature()
+                + "; spring.threads.virtual.enabled is ignored below 21, both runs will use platform threads");
+        }
+
+        Result platform = run("platform", clients, seconds);
+        Result virtual = run("virtual", clients, seconds, "vthreads");
+
+        System.out.println();
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "mode", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        platform.print();
+        virtual.print();
+    }
+
+    private static Result run(String mode, int clients, int seconds, String... extraProfiles) throws Exception {
+        List<String> profiles = new ArrayList<>(List.of("dev"));
+        profiles.addAll(Arrays.asList(extraProfiles));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HagsCustomerApplication.class)
+                .profiles(profiles.toArray(new String[0]))
+                .properties("server.port=0", "logging.level.com.example=WARN")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(Math.max(4, clients / 8)))
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            // Warm up JIT, pools and caches before measuring
+            drive(client, baseUrl, Math.min(clients, 20), 5_000_000_000L, null);
+
+            Recorder recorder = new Recorder();
+            long started = System.nanoTime();
+            drive(client, baseUrl, clients, seconds * 1_000_000_000L, recorder);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+            return recorder.result(mode, elapsedSeconds);
+        }
+    }
+
+    private static void drive(HttpClient client, String baseUrl, int clients, long durationNanos,
+                              Recorder recorder) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        CountDownLatch done = new CountDownLatch(clients);
+        long deadline = System.nanoTime() + durationNanos;
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            workers.execute(() -> {
+                try {
+                    int i = offset;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS[i++ % PATHS.length]))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        if (recorder != null) {
+                            recorder.record(System.nanoTime() - start, status);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+    }
+
+    private static final class Recorder {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, int status) {
+            latencies.add(nanos);
+            if (status < 200 || status >= 300) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized Result result(String mode, double elapsedSeconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Result(mode, sorted.length, sorted.length / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private record Result(String mode, long requests, double throughput, double p50Ms, double p99Ms, long errors) {
+        void print() {
+            System.out.printf("%-10s %10d %10.1f %10.2f %10.2f %10d%n", mode, requests, throughput, p50Ms, p99Ms, errors);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link PermitLimitedDataSource} when
+ * datasource.permits.enabled=true (on by default in the virtual-threads profile).
+ * Only the bean named "dataSource" is wrapped, so with replica routing the permits
+ * bound the total across all pools and the individual pools keep their concrete types.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.permits.enabled", havingValue = "true")
+public class DataSourcePermitConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourcePermitLimiter(Environment environment) {
+        int maxPermits = environment.getProperty("datasource.permits.max", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long acquireTimeoutMs = environment.getProperty("datasource.permits.acquire-timeout-ms", Long.class, 5000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof PermitLimitedDataSource)) {
+                    System.out.println("DataSourcePermitConfig: Limiting database access to " + maxPermits
+                            + " permit(s), " + acquireTimeoutMs + " ms acquire timeout");
+                    return new PermitLimitedDataSource(dataSource, maxPermits, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Permit limiter gauges (datasource.permits.available / .waiting) when the limiter is on.
+ * A growing waiting count with the pool fully active means the pool, not the database,
+ * is the bottleneck.
+ */
+@Component
+public class DataSourcePermitMetrics implements MeterBinder {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(dataSource instanceof PermitLimitedDataSource permits)) {
+            return;
+        }
+        Gauge.builder("datasource.permits.available", permits, PermitLimitedDataSource::availablePermits)
+                .description("Database permits currently free")
+                .register(registry);
+        Gauge.builder("datasource.permits.waiting", permits, PermitLimitedDataSource::queueLength)
+                .description("Requests waiting for a database permit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-replica routing, enabled with datasource.replicas.enabled=true.
+ *
+ * The primary pool is built from the usual spring.datasource.* settings; one extra pool
+ * is created per URL in datasource.replicas.urls. Read-only transactions
+ * ({@code @Transactional(readOnly = true)}) go to a replica whose lag is within
+ * datasource.replicas.max-lag-ms, everything else to the primary. Flyway and any work
+ * outside a read-only transaction always use the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private String[] replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.maximum-pool-size:10}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${datasource.replicas.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${datasource.replicas.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private final Map<String, HikariDataSource> replicaPools = new LinkedHashMap<>();
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaMaximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+            replicaPools.put(name, replica);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMs);
+        routingDataSource.afterPropertiesSet();
+        // Replicas stay out of rotation until the first lag check has passed
+        routingDataSource.checkLag();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesMs));
+        registration.addUrlPatterns("/v1/*");
+        return registration;
+    }
+
+    /**
+     * Replica pools are not beans, so Boot's Hikari metrics only see the primary; bind them
+     * here along with the last measured lag per replica (-1 when unreachable).
+     */
+    @Bean
+    public MeterBinder replicaMetrics() {
+        return registry -> {
+            for (Map.Entry<String, HikariDataSource> pool : replicaPools.entrySet()) {
+                pool.getValue().setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                Gauge.builder("datasource.replica.lag", routingDataSource,
+                                routing -> routing.lagSnapshot().getOrDefault(pool.getKey(), -1L))
+                        .tag("replica", pool.getKey())
+                        .baseUnit("milliseconds")
+                        .description("Replication lag at the last check")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:1000}")
+    public void checkReplicaLag() {
+        if (routingDataSource != null) {
+            routingDataSource.checkLag();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.config;
+
+/**
+ * Per-request flag that pins reads to the primary, set by {@link ReadYourWritesFilter}
+ * for clients inside the read-your-writes window after one of their own writes.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to a replica pool and everything else to the primary.
+ *
+ * A replica is only used while its measured replication lag is within the limit; when
+ * none qualifies, or the current request is inside its read-your-writes window, reads
+ * go to the primary. Must sit behind a LazyConnectionDataSourceProxy so the routing
+ * decision is made after the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    // Zero when caught up; an idle primary does not make an up-to-date replica look stale
+    private static final String POSTGRES_LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+    private final Map<String, Long> lastLagMs = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagMs) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagMs = maxLagMs;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    /**
+     * Measures each replica's lag and updates the set reads may be routed to.
+     */
+    public void checkLag() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            long lagMs = measureLagMs(replica.getValue());
+            synchronized (lastLagMs) {
+                lastLagMs.put(replica.getKey(), lagMs);
+            }
+            if (lagMs >= 0 && lagMs <= maxLagMs) {
+                healthy.add(replica.getKey());
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            System.out.println("ReplicaRoutingDataSource: Routing reads to " + (healthy.isEmpty() ? "primary only" : healthy));
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    public Map<String, Long> lagSnapshot() {
+        synchronized (lastLagMs) {
+            return new LinkedHashMap<>(lastLagMs);
+        }
+    }
+
+    /**
+     * Lag in milliseconds, or -1 when the replica cannot be reached.
+     */
+    private static long measureLagMs(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                // No portable lag query (e.g. Azure SQL readable secondaries); reachable counts as current
+                return 0;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(POSTGRES_LAG_SQL)) {
+                return rows.next() ? (long) rows.getDouble(1) : 0;
+            }
+        } catch (Exception e) {
+            System.err.println("WARNING: Replica lag check failed: " + e.getMessage());
+            return -1;
+        }
+    }
+}
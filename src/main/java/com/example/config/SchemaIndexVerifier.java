@@ -0,0 +1,134 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fails startup when an index the read paths depend on is missing, rather than letting
+ * the first busy hour discover it as sequential scans. The indexes come from the Flyway
+ * migrations in db/migration/{vendor}. On PostgreSQL an index left INVALID by a failed
+ * CREATE INDEX CONCURRENTLY counts as missing.
+ *
+ * Skipped when Hibernate creates the schema itself (ddl-auto create / create-drop),
+ * as the integration tests do, since those schemas never carry the migration indexes.
+ */
+@Component
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    private static final Map<String, List<String>> EXPECTED_INDEXES = new LinkedHashMap<>();
+
+    static {
+        EXPECTED_INDEXES.put("customers", List.of(
+                "idx_customers_email_lower",
+                "idx_customers_active_created_at",
+                "idx_customers_active_full_name",
+                "idx_customers_active_updated_at",
+                "idx_customers_status_created_at",
+                "idx_customers_updated_at"));
+        EXPECTED_INDEXES.put("submissions", List.of(
+                "idx_submissions_customer_created_at_id",
+                "idx_submissions_status_created_at"));
+        EXPECTED_INDEXES.put("submission_items", List.of(
+                "idx_submission_items_submission_line"));
+    }
+
+    // Only the PostgreSQL migrations create these; SQL Server serves the same queries from other indexes
+    private static final Map<String, List<String>> POSTGRESQL_INDEXES = Map.of(
+            "submissions", List.of("idx_submissions_number_pattern"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${schema.verify-indexes:true}")
+    private boolean enabled;
+
+    @Value("${spring.jpa.hibernate.ddl-auto:none}")
+    private String ddlAuto;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (!enabled || "create".equals(ddlAuto) || "create-drop".equals(ddlAuto)) {
+            return;
+        }
+
+        List<String> missing = new ArrayList<>();
+        Map<String, List<String>> expected;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Set<String> invalid = invalidIndexes(connection, metaData);
+            expected = expectedIndexes(metaData);
+            for (Map.Entry<String, List<String>> table : expected.entrySet()) {
+                Set<String> present = indexNames(metaData, table.getKey());
+                for (String index : table.getValue()) {
+                    if (!present.contains(index) || invalid.contains(index)) {
+                        missing.add(table.getKey() + "." + index);
+                    }
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing or invalid database indexes: " + missing
+                    + ". Run the Flyway migrations (db/migration) or set schema.verify-indexes=false.");
+        }
+        System.out.println("SchemaIndexVerifier: All " + expected.values().stream().mapToInt(List::size).sum()
+                + " expected indexes present");
+    }
+
+    private static Map<String, List<String>> expectedIndexes(DatabaseMetaData metaData) throws SQLException {
+        if (!"PostgreSQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+            return EXPECTED_INDEXES;
+        }
+        Map<String, List<String>> expected = new LinkedHashMap<>(EXPECTED_INDEXES);
+        for (Map.Entry<String, List<String>> table : POSTGRESQL_INDEXES.entrySet()) {
+            List<String> indexes = new ArrayList<>(expected.getOrDefault(table.getKey(), List.of()));
+            indexes.addAll(table.getValue());
+            expected.put(table.getKey(), indexes);
+        }
+        return expected;
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, table, false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> invalidIndexes(Connection connection, DatabaseMetaData metaData) throws SQLException {
+        Set<String> invalid = new HashSet<>();
+        if (!"PostgreSQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+            return invalid;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE NOT i.indisvalid")) {
+            while (rows.next()) {
+                invalid.add(rows.getString(1).toLowerCase());
+            }
+        }
+        return invalid;
+    }
+}
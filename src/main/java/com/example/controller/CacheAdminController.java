@@ -0,0 +1,30 @@
+package com.example.controller;
+
+import com.example.service.CustomerCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/admin/caches")
+@Tag(name = "Admin", description = "Administrative endpoints")
+public class CacheAdminController {
+
+    @Autowired
+    private CustomerCache customerCache;
+
+    @GetMapping
+    @Operation(summary = "Cache statistics", description = "Hit, miss and eviction counts for the customer read cache tiers.", operationId = "getCacheStats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("customers", customerCache.stats());
+        return ResponseEntity.ok(response);
+    }
+}
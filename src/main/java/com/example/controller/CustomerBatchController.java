@@ -0,0 +1,64 @@
+package com.example.controller;
+
+import com.example.dto.CustomerBatchCreateResponse;
+import com.example.dto.CustomerBatchGetRequest;
+import com.example.dto.CustomerBatchGetResponse;
+import com.example.dto.CustomerCreateRequest;
+import com.example.service.CustomerBulkService;
+import com.example.service.CustomerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/v1")
+@Tag(name = "Customers", description = "Customer management API")
+public class CustomerBatchController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private CustomerBulkService customerBulkService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @PostMapping(value = "/customers:batchCreate", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create customers in bulk",
+               description = "Takes a JSON array of customers and reports an outcome per row, in request order",
+               operationId = "batchCreateCustomers",
+               // Read from the stream by the service, so the array schema is declared here
+               requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, content = @Content(
+                       mediaType = MediaType.APPLICATION_JSON_VALUE,
+                       array = @ArraySchema(schema = @Schema(implementation = CustomerCreateRequest.class)))))
+    public ResponseEntity<CustomerBatchCreateResponse> batchCreateCustomers(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(customerBulkService.createCustomersFromJsonArray(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/customers:batchCreate", consumes = APPLICATION_NDJSON)
+    @Operation(summary = "Create customers in bulk from NDJSON",
+               description = "Takes one customer JSON object per line and reports an outcome per row, in line order",
+               operationId = "batchCreateCustomersNdjson")
+    public ResponseEntity<CustomerBatchCreateResponse> batchCreateCustomersNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(customerBulkService.createCustomers(request.getInputStream()));
+    }
+
+    @PostMapping("/customers:batchGet")
+    @Operation(summary = "Get customers by ids",
+               description = "Resolves up to 1000 customer ids in one call; unknown or deleted ids are returned in notFound",
+               operationId = "batchGetCustomers")
+    public ResponseEntity<CustomerBatchGetResponse> batchGetCustomers(
+            @Valid @RequestBody CustomerBatchGetRequest request) {
+        return ResponseEntity.ok(customerService.batchGetCustomers(request.getCustomerIds()));
+    }
+}
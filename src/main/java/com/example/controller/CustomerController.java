@@ -2,17 +2,26 @@ package com.example.controller;
 
 import com.example.dto.*;
 import com.example.model.Customer;
+import com.example.repository.CountMode;
+import com.example.service.CustomerExportService;
 import com.example.service.CustomerService;
+import com.example.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/v1/customers")
@@ -22,16 +31,24 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
     
+    @Autowired
+    private CustomerExportService customerExportService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @PostMapping
     @Operation(summary = "Create customer", operationId = "createCustomer")
     public ResponseEntity<CustomerResponse> createCustomer(
             @Valid @RequestBody CustomerCreateRequest request,
             @RequestHeader(value = "Idempotency-Key", required = false) 
             @Parameter(description = "Optional key to safely retry create without duplicates") String idempotencyKey) {
-        CustomerResponse customer = customerService.createCustomer(request, idempotencyKey);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .header("Location", "/v1/customers/" + customer.getCustomerId())
-                .body(customer);
+        return idempotencyService.execute("createCustomer", idempotencyKey, request, CustomerResponse.class, () -> {
+            CustomerResponse customer = customerService.createCustomer(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Location", "/v1/customers/" + customer.getCustomerId())
+                    .body(customer);
+        });
     }
     
     @GetMapping("/lookup")
@@ -42,16 +59,72 @@ public class CustomerController {
         return ResponseEntity.ok(customer);
     }
     
+    @GetMapping("/search")
+    @Operation(summary = "Typeahead customer search", 
+               description = "Best matches across name/email/phone ranked by relevance, served from the in-memory search index. Terms of one or two characters match the start of a name word, email or phone only",
+               operationId = "typeaheadCustomers")
+    public ResponseEntity<CustomerListResponse> typeaheadCustomers(
+            @Parameter(description = "Search term", required = true) @RequestParam String q,
+            @Parameter(description = "Maximum results (1-50)") @RequestParam(required = false, defaultValue = "10") Integer limit) {
+        CustomerListResponse response = customerService.typeaheadCustomers(q, limit);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Customers changed since a token", 
+               description = "Created, updated and soft-deleted customers in (updated_at, customer_id) order. " +
+                       "Pass nextToken back as since to resume; omit since to start from the beginning",
+               operationId = "listCustomerChanges")
+    public ResponseEntity<CustomerChangesResponse> listCustomerChanges(
+            @Parameter(description = "Continuation token (nextToken of the previous call)") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum changes (1-1000)") @RequestParam(required = false, defaultValue = "200") Integer limit) {
+        return ResponseEntity.ok(customerService.listChanges(since, limit));
+    }
+    
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export customers as NDJSON", 
+               description = "Streams every matching customer, one JSON object per line, in customer_id order. " +
+                       "Filters match the list endpoint. Gzip-compressed when the client sends Accept-Encoding: gzip",
+               operationId = "exportCustomers")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @Parameter(description = "Full-text search across name/email/phone") @RequestParam(required = false) String q,
+            @Parameter(description = "Filter by exact email") @RequestParam(required = false) String email,
+            @Parameter(description = "Filter by phone") @RequestParam(required = false) String phone,
+            @Parameter(description = "Filter by customer status") @RequestParam(required = false) Customer.CustomerStatus status,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            long written = customerExportService.exportCustomers(q, email, phone, status, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+            System.out.println("CustomerController: Exported " + written + " customer(s)");
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
     @GetMapping(value = "/{customer_id}", produces = "application/json")
     @Operation(summary = "Get customer by id", operationId = "getCustomer")
     public ResponseEntity<CustomerResponse> getCustomer(
             @Parameter(description = "Customer GUID", required = true, example = "95240174-43c0-4f75-a716-a2f701e7c9fd")
-            @PathVariable("customer_id") String customerIdStr) {
+            @PathVariable("customer_id") String customerIdStr,
+            WebRequest webRequest) {
         System.out.println("DEBUG: getCustomer called with customer_id: " + customerIdStr);
         try {
             UUID customerId = UUID.fromString(customerIdStr);
             CustomerResponse customer = customerService.getCustomerById(customerId);
-            return ResponseEntity.ok(customer);
+            // Served from the read cache when warm, so a matching poll costs neither a query nor serialization
+            String etag = ETags.of(customer.getVersion());
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(customer);
         } catch (IllegalArgumentException e) {
             System.err.println("ERROR: Invalid UUID format: " + customerIdStr + " - " + e.getMessage());
             throw new org.springframework.web.server.ResponseStatusException(
@@ -68,10 +141,20 @@ public class CustomerController {
             @Parameter(description = "Filter by phone") @RequestParam(required = false) String phone,
             @Parameter(description = "Filter by customer status") @RequestParam(required = false) Customer.CustomerStatus status,
             @Parameter(description = "Page size (1-200)") @RequestParam(required = false, defaultValue = "50") Integer limit,
-            @Parameter(description = "Pagination cursor") @RequestParam(required = false) String cursor,
-            @Parameter(description = "Sort field") @RequestParam(required = false, defaultValue = "created_at") String sort,
-            @Parameter(description = "Sort order") @RequestParam(required = false, defaultValue = "desc") String order) {
-        CustomerListResponse response = customerService.listCustomers(q, email, phone, status, limit, cursor, sort, order);
+            @Parameter(description = "Opaque keyset cursor (nextCursor of the previous page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort field (created_at, full_name, updated_at)") @RequestParam(required = false, defaultValue = "created_at") String sort,
+            @Parameter(description = "Sort order") @RequestParam(required = false, defaultValue = "desc") String order,
+            @Parameter(description = "Total count mode: none, estimated (planner estimate) or exact (COUNT(*))") 
+            @RequestParam(required = false, defaultValue = "none") String count) {
+        CountMode countMode;
+        try {
+            countMode = CountMode.fromParam(count);
+        } catch (IllegalArgumentException e) {
+            throw new org.springframework.web.server.ResponseStatusException(
+                org.springframework.http.HttpStatus.BAD_REQUEST, 
+                "Invalid count mode: " + count);
+        }
+        CustomerListResponse response = customerService.listCustomers(q, email, phone, status, limit, cursor, sort, order, countMode);
         return ResponseEntity.ok(response);
     }
     
@@ -79,11 +162,13 @@ public class CustomerController {
     @Operation(summary = "Update customer (partial)", operationId = "updateCustomer")
     public ResponseEntity<CustomerResponse> updateCustomer(
             @Parameter(description = "Customer GUID", required = true) @PathVariable("customer_id") String customerIdStr,
-            @Valid @RequestBody CustomerUpdateRequest request) {
+            @Valid @RequestBody CustomerUpdateRequest request,
+            @RequestHeader(value = "If-Match", required = false) 
+            @Parameter(description = "ETag of the version being updated; 412 if the customer has changed since") String ifMatch) {
         try {
             UUID customerId = UUID.fromString(customerIdStr);
-            CustomerResponse customer = customerService.updateCustomer(customerId, request);
-            return ResponseEntity.ok(customer);
+            CustomerResponse customer = customerService.updateCustomer(customerId, request, ETags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(customer.getVersion())).body(customer);
         } catch (IllegalArgumentException e) {
             throw new org.springframework.web.server.ResponseStatusException(
                 org.springframework.http.HttpStatus.BAD_REQUEST, 
@@ -0,0 +1,43 @@
+package com.example.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong ETags derived from an entity's optimistic-lock version.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * For a representation embedding a second entity, e.g. a submission with its customer.
+     */
+    static String of(Long version, Long embeddedVersion) {
+        return "\"" + (version != null ? version : 0L) + "." + (embeddedVersion != null ? embeddedVersion : 0L) + "\"";
+    }
+
+    /**
+     * Version a PATCH must apply to, from If-Match; null when the header is absent or "*".
+     * Anything that is not one of our strong ETags can never match, so it fails the precondition.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.controller;
 
 import com.example.dto.*;
+import com.example.service.IdempotencyService;
+import com.example.service.SubmissionExpand;
+import com.example.service.SubmissionIngestService;
+import com.example.service.SubmissionItemExportService;
 import com.example.service.SubmissionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/v1/submissions")
@@ -22,20 +37,33 @@ public class SubmissionController {
     @Autowired
     private SubmissionService submissionService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private SubmissionIngestService submissionIngestService;
+    
+    @Autowired
+    private SubmissionItemExportService submissionItemExportService;
+    
     @PostMapping
     @Operation(summary = "Create submission", operationId = "createSubmission")
-    public ResponseEntity<?> createSubmission(
-            @Valid @RequestBody SubmissionCreateRequestLite request) {
+    public ResponseEntity<SubmissionCreateResponseLite> createSubmission(
+            @Valid @RequestBody SubmissionCreateRequestLite request,
+            @RequestHeader(value = "Idempotency-Key", required = false) 
+            @Parameter(description = "Optional key to safely retry create without duplicates") String idempotencyKey) {
         System.out.println("DEBUG SubmissionController: Received createSubmission request");
         System.out.println("DEBUG SubmissionController: Customer ID: " + request.getCustomerId());
         System.out.println("DEBUG SubmissionController: Items count: " + (request.getItems() != null ? request.getItems().size() : 0));
         
         try {
-            SubmissionCreateResponseLite response = submissionService.createSubmission(request);
-            System.out.println("DEBUG SubmissionController: Submission created successfully: " + response.getSubmission().getSubmissionId());
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .header("Location", "/v1/submissions/" + response.getSubmission().getSubmissionId())
-                    .body(response);
+            return idempotencyService.execute("createSubmission", idempotencyKey, request, SubmissionCreateResponseLite.class, () -> {
+                SubmissionCreateResponseLite response = submissionService.createSubmission(request);
+                System.out.println("DEBUG SubmissionController: Submission created successfully: " + response.getSubmission().getSubmissionId());
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .header("Location", "/v1/submissions/" + response.getSubmission().getSubmissionId())
+                        .body(response);
+            });
         } catch (org.springframework.web.server.ResponseStatusException e) {
             System.err.println("DEBUG SubmissionController: Caught ResponseStatusException: " + e.getStatusCode() + " - " + e.getReason());
             e.printStackTrace();
@@ -49,26 +77,93 @@ public class SubmissionController {
         }
     }
     
+    @PostMapping(consumes = "application/x-ndjson")
+    @Operation(summary = "Create submission from NDJSON", 
+               description = "Streaming ingest for large submissions: a header line (customerId, serviceLevel, notesCustomer) " +
+                       "followed by one item per line. Items are written in batches as they arrive; invalid lines are " +
+                       "skipped and reported by line number, or roll everything back when atomic=true. " +
+                       "422 when nothing was stored",
+               operationId = "ingestSubmission")
+    public ResponseEntity<SubmissionIngestResponse> ingestSubmission(
+            @Parameter(description = "Reject the whole submission if any line is invalid") 
+            @RequestParam(required = false, defaultValue = "false") boolean atomic,
+            HttpServletRequest request) throws IOException {
+        SubmissionIngestResponse response = submissionIngestService.ingest(request.getInputStream(), atomic);
+        if (response.getSubmission() == null) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Location", "/v1/submissions/" + response.getSubmission().getSubmissionId())
+                .body(response);
+    }
+    
     @GetMapping("/{submission_id}")
     @Operation(summary = "Get submission by id", operationId = "getSubmission")
     public ResponseEntity<SubmissionLite> getSubmission(
             @Parameter(description = "Submission GUID", required = true) 
-            @PathVariable("submission_id") UUID submissionId) {
-        SubmissionLite submission = submissionService.getSubmissionById(submissionId);
-        return ResponseEntity.ok(submission);
+            @PathVariable("submission_id") UUID submissionId,
+            @Parameter(description = "Related data to embed: any of items, intakeCode, customer (comma-separated)") 
+            @RequestParam(required = false) String expand,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+            WebRequest webRequest) {
+        Set<SubmissionExpand> expansions = SubmissionExpand.parse(expand);
+        // A conditional poll only needs the version, not the submission; an embedded
+        // customer has its own version, so that ETag is only known after the read
+        boolean withCustomer = expansions.contains(SubmissionExpand.CUSTOMER);
+        if (ifNoneMatch != null && !withCustomer) {
+            String etag = ETags.of(submissionService.getSubmissionVersion(submissionId));
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        SubmissionLite submission = submissionService.getSubmissionById(submissionId, expansions);
+        String etag = withCustomer
+                ? ETags.of(submission.getVersion(), submission.getCustomer() != null ? submission.getCustomer().getVersion() : null)
+                : ETags.of(submission.getVersion());
+        if (withCustomer && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(submission);
+    }
+    
+    @GetMapping
+    @Operation(summary = "List/search submissions", 
+               description = "Newest first. Pass nextCursor back as cursor for the next page",
+               operationId = "listSubmissions")
+    public ResponseEntity<SubmissionListResponse> listSubmissions(
+            @Parameter(description = "Filter by customer GUID") @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "Filter by submission status") @RequestParam(required = false) com.example.model.Submission.SubmissionStatus status,
+            @Parameter(description = "Filter by service level") @RequestParam(required = false) com.example.model.Submission.ServiceLevel serviceLevel,
+            @Parameter(description = "Created at or after (ISO date-time)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Created before (ISO date-time)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Submission number prefix, e.g. SUB-0001") @RequestParam(required = false) String q,
+            @Parameter(description = "Page size (1-100)") @RequestParam(required = false, defaultValue = "25") Integer limit,
+            @Parameter(description = "Opaque keyset cursor (nextCursor of the previous page)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Related data to embed: any of items, intakeCode, customer (comma-separated)") 
+            @RequestParam(required = false) String expand) {
+        return ResponseEntity.ok(submissionService.listSubmissions(customerId, status, serviceLevel, createdFrom, createdTo,
+                q, limit, cursor, SubmissionExpand.parse(expand)));
     }
     
     @GetMapping("/customer/{customer_id}")
-    @Operation(summary = "Get all submissions for a customer", operationId = "getSubmissionsByCustomer")
+    @Operation(summary = "Get all submissions for a customer", 
+               description = "Unpaged; prefer GET /v1/submissions?customerId= for customers with many submissions",
+               operationId = "getSubmissionsByCustomer")
     public ResponseEntity<List<SubmissionLite>> getSubmissionsByCustomer(
             @Parameter(description = "Customer GUID", required = true) 
-            @PathVariable("customer_id") UUID customerId) {
-        List<SubmissionLite> submissions = submissionService.getSubmissionsByCustomerId(customerId);
+            @PathVariable("customer_id") UUID customerId,
+            @Parameter(description = "Related data to embed: any of items, intakeCode, customer (comma-separated)") 
+            @RequestParam(required = false) String expand) {
+        List<SubmissionLite> submissions = submissionService.getSubmissionsByCustomerId(customerId, SubmissionExpand.parse(expand));
         return ResponseEntity.ok(submissions);
     }
     
     @GetMapping("/{submission_id}/items")
-    @Operation(summary = "Get all items for a submission", operationId = "getItemsBySubmissionId")
+    @Operation(summary = "Get all items for a submission", 
+               description = "Unpaged; prefer /{submission_id}/items/page for large submissions",
+               operationId = "getItemsBySubmissionId")
     public ResponseEntity<List<SubmissionItemLite>> getItemsBySubmissionId(
             @Parameter(description = "Submission GUID", required = true)
             @PathVariable("submission_id") UUID submissionId) {
@@ -78,7 +173,8 @@ public class SubmissionController {
     
     @GetMapping("/items")
     @Operation(summary = "Get items filtered by submission status", 
-               description = "Get all items from submissions with the specified status. Status can be selected from dropdown.",
+               description = "Get all items from submissions with the specified status. Status can be selected from dropdown. " +
+                       "Unpaged; prefer /items/page or /items/export for busy statuses.",
                operationId = "getItemsBySubmissionStatus")
     public ResponseEntity<List<SubmissionItemLite>> getItemsBySubmissionStatus(
             @Parameter(description = "Submission status (e.g., 'submitted-not yet received', 'grading started', etc.)", 
@@ -88,5 +184,55 @@ public class SubmissionController {
         List<SubmissionItemLite> items = submissionService.getItemsBySubmissionStatus(status);
         return ResponseEntity.ok(items);
     }
+    
+    @GetMapping("/{submission_id}/items/page")
+    @Operation(summary = "Page through a submission's items", 
+               description = "Items in line number order. Pass nextCursor back as cursor for the next page",
+               operationId = "listItemsBySubmissionId")
+    public ResponseEntity<SubmissionItemListResponse> listItemsBySubmissionId(
+            @Parameter(description = "Submission GUID", required = true)
+            @PathVariable("submission_id") UUID submissionId,
+            @Parameter(description = "Page size (1-1000)") @RequestParam(required = false, defaultValue = "200") Integer limit,
+            @Parameter(description = "Opaque keyset cursor (nextCursor of the previous page)") @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(submissionService.listItemsBySubmissionId(submissionId, limit, cursor));
+    }
+    
+    @GetMapping("/items/page")
+    @Operation(summary = "Page through items by submission status", 
+               description = "Items of every submission in the status, oldest submission first and in line number order " +
+                       "within a submission. Pass nextCursor back as cursor for the next page",
+               operationId = "listItemsBySubmissionStatus")
+    public ResponseEntity<SubmissionItemListResponse> listItemsBySubmissionStatus(
+            @Parameter(description = "Submission status", required = true, example = "submitted-not yet received")
+            @RequestParam("status") com.example.model.Submission.SubmissionStatus status,
+            @Parameter(description = "Page size (1-1000)") @RequestParam(required = false, defaultValue = "200") Integer limit,
+            @Parameter(description = "Opaque keyset cursor (nextCursor of the previous page)") @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(submissionService.listItemsBySubmissionStatus(status, limit, cursor));
+    }
+    
+    @GetMapping(value = "/items/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export items by submission status as NDJSON", 
+               description = "Streams every item of every submission in the status, one JSON object per line, in the " +
+                       "same order as /items/page. Gzip-compressed when the client sends Accept-Encoding: gzip",
+               operationId = "exportItemsBySubmissionStatus")
+    public ResponseEntity<StreamingResponseBody> exportItemsBySubmissionStatus(
+            @Parameter(description = "Submission status", required = true, example = "submitted-not yet received")
+            @RequestParam("status") com.example.model.Submission.SubmissionStatus status,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            long written = submissionItemExportService.exportItemsByStatus(status, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+            System.out.println("SubmissionController: Exported " + written + " item(s)");
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
-
@@ -2,6 +2,7 @@ package com.example.controller;
 
 import com.example.config.TestDataInitializer;
 import com.example.repository.CustomerRepository;
+import com.example.service.CustomerSearchIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +24,9 @@ public class TestDataController {
     
     @Autowired
     private CustomerRepository customerRepository;
+    
+    @Autowired
+    private CustomerSearchIndex customerSearchIndex;
 
     @PostMapping("/init-test-data")
     @Operation(summary = "Initialize test data from CSV", description = "Loads customer data from customers.csv file. Safe to call multiple times - skips existing customers.")
@@ -34,6 +38,11 @@ public class TestDataController {
             response.put("customersCreated", created);
             response.put("message", "Test data initialization completed. " + created + " customer(s) created.");
             
+            // Customers are inserted directly through the repository, so refresh the search index
+            if (created > 0) {
+                customerSearchIndex.rebuild();
+            }
+            
             // Also verify the customer can be found
             if (created > 0) {
                 java.util.UUID testCustomerId = java.util.UUID.fromString("95240174-43c0-4f75-a716-a2f701e7c9fd");
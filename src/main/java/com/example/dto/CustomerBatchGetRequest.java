@@ -0,0 +1,15 @@
+package com.example.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class CustomerBatchGetRequest {
+    @NotEmpty(message = "customerIds is required")
+    @Size(max = 1000, message = "customerIds must not exceed 1000 entries")
+    private List<UUID> customerIds;
+}
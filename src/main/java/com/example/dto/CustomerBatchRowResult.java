@@ -0,0 +1,27 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerBatchRowResult {
+    private int index;
+    private Outcome outcome;
+    private UUID customerId;
+    private String message;
+    private Map<String, Object> details;
+    
+    public enum Outcome {
+        CREATED, INVALID, DUPLICATE_IN_BATCH, CONFLICT, ERROR
+    }
+}
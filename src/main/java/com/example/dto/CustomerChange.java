@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChange {
+    private ChangeType changeType;
+    private CustomerResponse customer;
+    
+    public enum ChangeType {
+        // CREATED means created since the token was issued, so the client has never seen it
+        CREATED, UPDATED, DELETED
+    }
+}
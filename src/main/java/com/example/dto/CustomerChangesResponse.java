@@ -0,0 +1,19 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangesResponse {
+    private List<CustomerChange> changes;
+    // Pass back as since= to resume; null until the first change has been seen
+    private String nextToken;
+    private boolean hasMore;
+}
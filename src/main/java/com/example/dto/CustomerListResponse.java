@@ -1,5 +1,6 @@
 package com.example.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,5 +15,12 @@ import java.util.List;
 public class CustomerListResponse {
     private List<CustomerResponse> items;
     private String nextCursor;
+    
+    // Only present when requested with count=exact or count=estimated
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalCount;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalCountEstimated;
 }
 
@@ -26,6 +26,7 @@ public class CustomerResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime deletedAt;
+    private Long version;
     
     public static CustomerResponse fromEntity(Customer customer) {
         return CustomerResponse.builder()
@@ -40,6 +41,7 @@ public class CustomerResponse {
                 .createdAt(customer.getCreatedAt())
                 .updatedAt(customer.getUpdatedAt())
                 .deletedAt(customer.getDeletedAt())
+                .version(customer.getVersion())
                 .build();
     }
 }
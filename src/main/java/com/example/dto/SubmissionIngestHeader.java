@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import com.example.model.Submission;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * First line of an NDJSON submission ingest: the submission itself, without items.
+ * Every following line is one {@link SubmissionItemCreateLite}.
+ */
+@Data
+public class SubmissionIngestHeader {
+    @NotNull(message = "Customer ID is required")
+    private UUID customerId;
+    
+    private Submission.ServiceLevel serviceLevel = Submission.ServiceLevel.BRONZE;
+    
+    @Size(max = 2000, message = "Customer notes must not exceed 2000 characters")
+    private String notesCustomer;
+}
@@ -0,0 +1,24 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubmissionIngestResponse {
+    private SubmissionLite submission;
+    private SubmissionIntakeCodeDto intakeCode;
+    private int received;
+    private int accepted;
+    private int rejected;
+    // At most submissions.ingest.max-reported-errors entries; rejected has the full count
+    private List<SubmissionIngestLineError> errors;
+}
@@ -1,12 +1,14 @@
 package com.example.dto;
 
 import com.example.model.Submission;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -23,6 +25,17 @@ public class SubmissionLite {
     private Submission.SubmissionStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
+    
+    // Only present when requested with expand=items,intakeCode,customer
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<SubmissionItemLite> items;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SubmissionIntakeCodeDto intakeCode;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CustomerResponse customer;
     
     public static SubmissionLite fromEntity(Submission submission) {
         return SubmissionLite.builder()
@@ -35,6 +48,7 @@ public class SubmissionLite {
                 .status(submission.getStatus())
                 .createdAt(submission.getCreatedAt())
                 .updatedAt(submission.getUpdatedAt())
+                .version(submission.getVersion())
                 .build();
     }
 }
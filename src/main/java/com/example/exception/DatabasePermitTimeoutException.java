@@ -0,0 +1,14 @@
+package com.example.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * No database permit became free within datasource.permits.acquire-timeout-ms.
+ * Answered with 503 by GlobalExceptionHandler.
+ */
+public class DatabasePermitTimeoutException extends SQLTransientConnectionException {
+
+    public DatabasePermitTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.exception;
 
 import com.example.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -53,6 +54,10 @@ public class GlobalExceptionHandler {
             code = "CONFLICT";
         } else if (ex.getStatusCode() == HttpStatus.BAD_REQUEST) {
             code = "BAD_REQUEST";
+        } else if (ex.getStatusCode() == HttpStatus.PRECONDITION_FAILED) {
+            code = "PRECONDITION_FAILED";
+        } else if (ex.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY) {
+            code = "UNPROCESSABLE_ENTITY";
         }
         
         ErrorResponse error = ErrorResponse.builder()
@@ -66,6 +71,20 @@ public class GlobalExceptionHandler {
     
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        // Permit timeouts arrive wrapped in whatever the data access layer made of them
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabasePermitTimeoutException) {
+                System.err.println("WARNING: " + cause.getMessage());
+                ErrorResponse error = ErrorResponse.builder()
+                        .code("SERVICE_UNAVAILABLE")
+                        .message("The service is busy, please retry shortly")
+                        .build();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(error);
+            }
+        }
+
         // Log the actual exception for debugging
         ex.printStackTrace();
         System.err.println("ERROR: " + ex.getClass().getName() + ": " + ex.getMessage());
@@ -12,7 +12,8 @@ import java.util.UUID;
 @Table(name = "customers", indexes = {
     @Index(name = "idx_customers_email", columnList = "email"),
     @Index(name = "idx_customers_status", columnList = "status"),
-    @Index(name = "idx_customers_created_at", columnList = "created_at")
+    @Index(name = "idx_customers_created_at", columnList = "created_at"),
+    @Index(name = "idx_customers_updated_at", columnList = "updated_at, customer_id")
 })
 @Data
 @NoArgsConstructor
@@ -69,6 +70,11 @@ public class Customer {
     @Column(name = "deleted_at", nullable = true)
     private LocalDateTime deletedAt;
     
+    // Optimistic-lock version, also the customer's ETag; bumped by every write
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
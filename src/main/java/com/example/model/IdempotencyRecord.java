@@ -0,0 +1,60 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a create call made with an Idempotency-Key, replayed on retries.
+ * A row is IN_PROGRESS while the first call runs; leaseExpiresAt lets another node
+ * take over a key whose owner died mid-request.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    // Scope (the operation) and the client key, e.g. "createCustomer:6f1c..."
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String idempotencyKey;
+    
+    // SHA-256 of the request body; a different body under the same key is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private State state = State.IN_PROGRESS;
+    
+    @Column(name = "response_status", nullable = true)
+    private Integer responseStatus;
+    
+    @Column(name = "response_location", length = 500, nullable = true)
+    private String responseLocation;
+    
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(name = "response_body", nullable = true)
+    private String responseBody;
+    
+    @Column(name = "lease_expires_at", nullable = true)
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public enum State {
+        IN_PROGRESS, COMPLETED
+    }
+}
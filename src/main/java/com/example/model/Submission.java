@@ -47,6 +47,7 @@ public class Submission {
     private SubmissionStatus status = SubmissionStatus.SUBMITTED_NOT_YET_RECEIVED;
     
     @OneToMany(mappedBy = "submission", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("lineNumber")
     private List<SubmissionItem> items = new ArrayList<>();
     
     @OneToOne(mappedBy = "submission", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -58,6 +59,11 @@ public class Submission {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Optimistic-lock version, also the submission's ETag; bumped by every write
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,21 @@
+package com.example.repository;
+
+/**
+ * How the total row count of a list query is obtained.
+ * Paging itself never needs a count; see {@link CustomerKeyset}.
+ */
+public enum CountMode {
+    /** No total is computed. */
+    NONE,
+    /** Planner row estimate from EXPLAIN; cheap but approximate. */
+    ESTIMATED,
+    /** SELECT COUNT(*) over the same WHERE clause; accurate but scans every matching row. */
+    EXACT;
+
+    public static CountMode fromParam(String value) {
+        if (value == null || value.isEmpty()) {
+            return NONE;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+}
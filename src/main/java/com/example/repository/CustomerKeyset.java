@@ -0,0 +1,66 @@
+package com.example.repository;
+
+import com.example.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Seek position for keyset pagination over customers.
+ * Rows are ordered by (sortColumn, customer_id); a page starts strictly after
+ * (afterSortValue, afterCustomerId), or at the beginning when both are null.
+ */
+@Data
+@AllArgsConstructor
+public class CustomerKeyset {
+    public static final String CREATED_AT = "created_at";
+    public static final String FULL_NAME = "full_name";
+    public static final String UPDATED_AT = "updated_at";
+
+    private String sortColumn;
+    private boolean ascending;
+    private Object afterSortValue;
+    private UUID afterCustomerId;
+
+    public static CustomerKeyset firstPage(String sortColumn, boolean ascending) {
+        return new CustomerKeyset(sortColumn, ascending, null, null);
+    }
+
+    public static boolean isSupportedColumn(String column) {
+        return CREATED_AT.equals(column) || FULL_NAME.equals(column) || UPDATED_AT.equals(column);
+    }
+
+    public boolean isFirstPage() {
+        return afterCustomerId == null;
+    }
+
+    /**
+     * Keyset positioned after the given row, i.e. the start of the following page.
+     */
+    public CustomerKeyset after(Customer last) {
+        return new CustomerKeyset(sortColumn, ascending, sortValueOf(last), last.getCustomerId());
+    }
+
+    public Object sortValueOf(Customer customer) {
+        switch (sortColumn) {
+            case FULL_NAME:
+                return customer.getFullName();
+            case UPDATED_AT:
+                return customer.getUpdatedAt();
+            default:
+                return customer.getCreatedAt();
+        }
+    }
+
+    /**
+     * Parses a sort value previously rendered with {@code String.valueOf} back to its column type.
+     */
+    public static Object parseSortValue(String sortColumn, String value) {
+        if (FULL_NAME.equals(sortColumn)) {
+            return value;
+        }
+        return LocalDateTime.parse(value);
+    }
+}
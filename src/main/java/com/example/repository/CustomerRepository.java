@@ -37,8 +37,6 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID>, Custo
             Pageable pageable
     );
     
-    boolean existsByEmailAndCustomerIdNot(String email, UUID excludeId);
-    
     boolean existsByEmail(String email);
 }
 
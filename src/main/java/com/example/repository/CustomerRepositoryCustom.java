@@ -1,16 +1,32 @@
 package com.example.repository;
 
 import com.example.model.Customer;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface CustomerRepositoryCustom {
     Optional<Customer> findByCustomerIdNative(String customerIdString);
     Optional<Customer> findByEmailNative(String email);
-    Page<Customer> findAllNative(Pageable pageable);
-    Page<Customer> searchCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, Pageable pageable);
+    Slice<Customer> findAllNative(CustomerKeyset keyset, int limit);
+    Slice<Customer> searchCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince, CustomerKeyset keyset, int limit);
+    long countCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince);
+    long estimateCustomerCountNative(String q, String email, String phone, Customer.CustomerStatus status, Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince);
+    List<Customer> findByCustomerIdsNative(Collection<UUID> customerIds);
+    List<Object[]> findSearchFieldsNative(UUID afterCustomerId, int limit);
+    List<Object[]> findSearchFieldsNative(LocalDateTime updatedSince, UUID afterCustomerId, int limit);
+    List<Object[]> findEmailsNative(LocalDateTime updatedSince, UUID afterCustomerId, int limit);
+    Optional<Customer> updateCustomerNative(UUID customerId, Customer.CustomerStatus expectedStatus, Long expectedVersion, Map<String, Object> assignments);
+    boolean existsByCustomerIdNative(UUID customerId);
+    Slice<Customer> findChangesNative(LocalDateTime settledBefore, CustomerKeyset keyset, int limit);
+    void streamCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, int fetchSize, Consumer<Customer> consumer);
+    Set<String> findExistingEmailsNative(Collection<String> normalizedEmails);
+    void insertCustomersNative(List<Customer> customers);
 }
-
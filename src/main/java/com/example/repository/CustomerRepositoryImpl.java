@@ -5,31 +5,66 @@ import com.example.model.Customer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Repository
 public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
 
+    private static final String CUSTOMER_COLUMNS = "customer_id, email, phone, full_name, " +
+        "billing_line1, billing_line2, billing_city, billing_region, billing_postcode, billing_country, " +
+        "shipping_line1, shipping_line2, shipping_city, shipping_region, shipping_postcode, shipping_country, " +
+        "marketing_opt_in, status, created_at, updated_at, deleted_at, version";
+
+    // Top plan node of EXPLAIN output, e.g. "Seq Scan on customers  (cost=0.00..1.05 rows=5 width=4)"
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    // SQL Server caps a statement at 2100 parameters
+    private static final int IN_LIST_CHUNK = 1000;
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
     @Override
     public Optional<Customer> findByCustomerIdNative(String customerIdString) {
         // PostgreSQL supports native UUID type, so we can cast the string parameter
         Query query = entityManager.createNativeQuery(
-            "SELECT customer_id, email, phone, full_name, " +
-            "billing_line1, billing_line2, billing_city, billing_region, billing_postcode, billing_country, " +
-            "shipping_line1, shipping_line2, shipping_city, shipping_region, shipping_postcode, shipping_country, " +
-            "marketing_opt_in, status, created_at, updated_at, deleted_at " +
+            "SELECT " + CUSTOMER_COLUMNS + " " +
             "FROM customers WHERE customer_id = CAST(? AS UUID)", 
             Object[].class
         );
@@ -51,10 +86,7 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
     @Override
     public Optional<Customer> findByEmailNative(String email) {
         Query query = entityManager.createNativeQuery(
-            "SELECT customer_id, email, phone, full_name, " +
-            "billing_line1, billing_line2, billing_city, billing_region, billing_postcode, billing_country, " +
-            "shipping_line1, shipping_line2, shipping_city, shipping_region, shipping_postcode, shipping_country, " +
-            "marketing_opt_in, status, created_at, updated_at, deleted_at " +
+            "SELECT " + CUSTOMER_COLUMNS + " " +
             "FROM customers WHERE LOWER(email) = LOWER(?)", 
             Object[].class
         );
@@ -73,7 +105,7 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
         }
     }
 
-    private Customer mapResultToCustomer(Object[] result) {
+    static Customer mapResultToCustomer(Object[] result) {
         Customer customer = new Customer();
         
         // PostgreSQL returns UUID as java.util.UUID directly, but handle both cases
@@ -114,149 +146,445 @@ public class CustomerRepositoryImpl implements CustomerRepositoryCustom {
         if (result[20] != null) {
             customer.setDeletedAt(((java.sql.Timestamp) result[20]).toLocalDateTime());
         }
+        customer.setVersion(result[21] != null ? ((Number) result[21]).longValue() : 0L);
         
         return customer;
     }
 
     @Override
-    public Page<Customer> findAllNative(Pageable pageable) {
-        // Get total count
-        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM customers WHERE status != 'DELETED'");
-        Long total = ((Number) countQuery.getSingleResult()).longValue();
+    public Slice<Customer> findAllNative(CustomerKeyset keyset, int limit) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("status != 'DELETED'");
+        return findPage(conditions, new ArrayList<>(), keyset, limit);
+    }
+
+    @Override
+    public Slice<Customer> searchCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince, CustomerKeyset keyset, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addSearchConditions(q, email, phone, status, candidateIds, candidatesChangedSince, conditions, params);
+        return findPage(conditions, params, keyset, limit);
+    }
+
+    @Override
+    public long countCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addSearchConditions(q, email, phone, status, candidateIds, candidatesChangedSince, conditions, params);
         
-        // Build query with pagination
-        String sql = "SELECT customer_id, email, phone, full_name, " +
-            "billing_line1, billing_line2, billing_city, billing_region, billing_postcode, billing_country, " +
-            "shipping_line1, shipping_line2, shipping_city, shipping_region, shipping_postcode, shipping_country, " +
-            "marketing_opt_in, status, created_at, updated_at, deleted_at " +
-            "FROM customers WHERE status != 'DELETED'";
+        Query countQuery = entityManager.createNativeQuery(
+            "SELECT COUNT(*) FROM customers WHERE " + String.join(" AND ", conditions));
+        for (int i = 0; i < params.size(); i++) {
+            countQuery.setParameter(i + 1, params.get(i));
+        }
+        return ((Number) countQuery.getSingleResult()).longValue();
+    }
+
+    @Override
+    public long estimateCustomerCountNative(String q, String email, String phone, Customer.CustomerStatus status, Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addSearchConditions(q, email, phone, status, candidateIds, candidatesChangedSince, conditions, params);
         
-        // Add sorting
-        if (pageable.getSort().isSorted()) {
-            String sortField = pageable.getSort().iterator().next().getProperty();
-            String sortDirection = pageable.getSort().iterator().next().getDirection().name();
-            
-            // Map JPA field names to database column names
-            String dbSortField = sortField;
-            if ("createdAt".equals(sortField)) dbSortField = "created_at";
-            else if ("fullName".equals(sortField)) dbSortField = "full_name";
-            else if ("updatedAt".equals(sortField)) dbSortField = "updated_at";
-            
-            sql += " ORDER BY " + dbSortField + " " + sortDirection;
-        } else {
-            sql += " ORDER BY created_at DESC";
+        // The planner's row estimate comes from pg_class/pg_statistic, so nothing is scanned
+        Query explainQuery = entityManager.createNativeQuery(
+            "EXPLAIN SELECT 1 FROM customers WHERE " + String.join(" AND ", conditions));
+        for (int i = 0; i < params.size(); i++) {
+            explainQuery.setParameter(i + 1, params.get(i));
         }
         
-        sql += " LIMIT ? OFFSET ?";
+        @SuppressWarnings("unchecked")
+        List<Object> plan = explainQuery.getResultList();
+        if (!plan.isEmpty()) {
+            Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan.get(0)));
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Applies the column assignments (plus updated_at and a version bump) to the customer if it
+     * is currently in {@code expectedStatus} and, when given, at {@code expectedVersion}, and
+     * returns the updated row from the same statement. Empty when no row matched. A duplicate
+     * email surfaces as DataIntegrityViolationException.
+     */
+    @Override
+    public Optional<Customer> updateCustomerNative(UUID customerId, Customer.CustomerStatus expectedStatus,
+                                                   Long expectedVersion, Map<String, Object> assignments) {
+        List<String> columns = List.of(CUSTOMER_COLUMNS.split(",\\s*"));
+        List<String> sets = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        for (Map.Entry<String, Object> assignment : assignments.entrySet()) {
+            // Only known column names are ever concatenated into the SQL
+            if (!columns.contains(assignment.getKey())) {
+                throw new IllegalArgumentException("Unknown customer column: " + assignment.getKey());
+            }
+            sets.add(assignment.getKey() + " = ?");
+            params.add(assignment.getValue());
+        }
+        sets.add("updated_at = ?");
+        params.add(LocalDateTime.now());
+        sets.add("version = version + 1");
         
-        Query query = entityManager.createNativeQuery(sql, Object[].class);
-        query.setParameter(1, pageable.getPageSize());
-        query.setParameter(2, pageable.getOffset());
+        String where = "customer_id = ? AND status = ?";
+        params.add(isSqlServer() ? customerId.toString() : customerId);
+        params.add(expectedStatus.name());
+        if (expectedVersion != null) {
+            where += " AND version = ?";
+            params.add(expectedVersion);
+        }
         
-        @SuppressWarnings("unchecked")
-        List<Object[]> results = query.getResultList();
-        List<Customer> customers = new ArrayList<>();
-        for (Object[] result : results) {
-            customers.add(mapResultToCustomer(result));
+        String sql;
+        if (isSqlServer()) {
+            sql = "UPDATE customers SET " + String.join(", ", sets) +
+                " OUTPUT " + columns.stream().map(c -> "INSERTED." + c).collect(Collectors.joining(", ")) +
+                " WHERE " + where;
+        } else {
+            sql = "UPDATE customers SET " + String.join(", ", sets) +
+                " WHERE " + where + " RETURNING " + CUSTOMER_COLUMNS;
         }
         
-        return new PageImpl<>(customers, pageable, total);
+        List<Customer> updated = jdbcTemplate.query(sql, (resultSet, rowNum) -> mapRow(resultSet), params.toArray());
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public boolean existsByCustomerIdNative(UUID customerId) {
+        List<Integer> found = jdbcTemplate.queryForList("SELECT 1 FROM customers WHERE customer_id = ?",
+            Integer.class, isSqlServer() ? customerId.toString() : customerId);
+        return !found.isEmpty();
+    }
+
+    @Override
+    public Slice<Customer> findChangesNative(LocalDateTime settledBefore, CustomerKeyset keyset, int limit) {
+        // Deleted customers are included: a soft delete is a change like any other
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        conditions.add("updated_at <= ?");
+        params.add(settledBefore);
+        return findPage(conditions, params, keyset, limit);
     }
 
     @Override
-    public Page<Customer> searchCustomersNative(String q, String email, String phone, Customer.CustomerStatus status, Pageable pageable) {
-        // Build WHERE clause
+    public void streamCustomersNative(String q, String email, String phone, Customer.CustomerStatus status,
+                                      int fetchSize, Consumer<Customer> consumer) {
         List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        addSearchConditions(q, email, phone, status, null, null, conditions, params);
+        String sql = "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE " + String.join(" AND ", conditions) +
+            " ORDER BY customer_id";
+        
+        // With a fetch size inside a transaction the driver reads through a server-side
+        // cursor, so only fetchSize rows are held in memory at a time
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapRow(resultSet)));
+    }
+
+    private Customer mapRow(ResultSet resultSet) throws SQLException {
+        Object[] row = new Object[resultSet.getMetaData().getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = resultSet.getObject(i + 1);
+        }
+        return mapResultToCustomer(row);
+    }
+
+    /**
+     * Appends the WHERE conditions and positional parameters shared by search, count and estimate.
+     */
+    private void addSearchConditions(String q, String email, String phone, Customer.CustomerStatus status,
+                                     Collection<UUID> candidateIds, LocalDateTime candidatesChangedSince,
+                                     List<String> conditions, List<Object> params) {
         conditions.add("status != 'DELETED'");
         
+        // Candidates from CustomerSearchIndex let the planner seek by primary key;
+        // the LIKE below still re-checks them, so a stale index never widens the result.
+        // Rows changed since the index last caught up (possibly on another node) may be
+        // missing from it, so those are checked directly through the updated_at index.
+        if (candidateIds != null) {
+            conditions.add("(customer_id = ANY(CAST(? AS UUID[])) OR updated_at >= ?)");
+            params.add(toUuidArrayLiteral(candidateIds));
+            params.add(candidatesChangedSince);
+        }
         if (q != null && !q.isEmpty()) {
+            String searchPattern = "%" + q + "%";
             conditions.add("(LOWER(full_name) LIKE LOWER(?) OR LOWER(email) LIKE LOWER(?) OR phone LIKE ?)");
+            params.add(searchPattern);
+            params.add(searchPattern);
+            params.add(searchPattern);
         }
         if (email != null && !email.isEmpty()) {
             conditions.add("LOWER(email) = LOWER(?)");
+            params.add(email);
         }
         if (phone != null && !phone.isEmpty()) {
             conditions.add("phone = ?");
+            params.add(phone);
         }
         if (status != null) {
             conditions.add("status = ?");
+            params.add(status.name());
+        }
+    }
+
+    @Override
+    public List<Customer> findByCustomerIdsNative(Collection<UUID> customerIds) {
+        List<Customer> customers = new ArrayList<>();
+        if (customerIds.isEmpty()) {
+            return customers;
         }
         
-        String whereClause = String.join(" AND ", conditions);
+        if (!isSqlServer()) {
+            Query query = entityManager.createNativeQuery(
+                "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE customer_id = ANY(CAST(? AS UUID[]))",
+                Object[].class
+            );
+            query.setParameter(1, toUuidArrayLiteral(customerIds));
+            
+            @SuppressWarnings("unchecked")
+            List<Object[]> results = query.getResultList();
+            for (Object[] result : results) {
+                customers.add(mapResultToCustomer(result));
+            }
+            return customers;
+        }
         
-        // Get total count
-        String countSql = "SELECT COUNT(*) FROM customers WHERE " + whereClause;
-        Query countQuery = entityManager.createNativeQuery(countSql);
-        int paramIndex = 1;
-        if (q != null && !q.isEmpty()) {
-            String searchPattern = "%" + q + "%";
-            countQuery.setParameter(paramIndex++, searchPattern);
-            countQuery.setParameter(paramIndex++, searchPattern);
-            countQuery.setParameter(paramIndex++, searchPattern);
+        // SQL Server has no array parameters; use IN lists under its parameter cap
+        List<UUID> ids = new ArrayList<>(customerIds);
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + IN_LIST_CHUNK, ids.size()));
+            Query query = entityManager.createNativeQuery(
+                "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE customer_id IN (" +
+                String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                Object[].class
+            );
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, chunk.get(i).toString());
+            }
+            
+            @SuppressWarnings("unchecked")
+            List<Object[]> results = query.getResultList();
+            for (Object[] result : results) {
+                customers.add(mapResultToCustomer(result));
+            }
         }
-        if (email != null && !email.isEmpty()) {
-            countQuery.setParameter(paramIndex++, email);
+        return customers;
+    }
+
+    @Override
+    public List<Object[]> findSearchFieldsNative(UUID afterCustomerId, int limit) {
+        String sql = "SELECT customer_id, full_name, email, phone FROM customers WHERE status != 'DELETED'";
+        if (afterCustomerId != null) {
+            sql += " AND customer_id > CAST(? AS UUID)";
         }
-        if (phone != null && !phone.isEmpty()) {
-            countQuery.setParameter(paramIndex++, phone);
+        sql += " ORDER BY customer_id LIMIT ?";
+        
+        Query query = entityManager.createNativeQuery(sql, Object[].class);
+        int paramIndex = 1;
+        if (afterCustomerId != null) {
+            query.setParameter(paramIndex++, afterCustomerId.toString());
         }
-        if (status != null) {
-            countQuery.setParameter(paramIndex++, status.name());
+        query.setParameter(paramIndex, limit);
+        
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public List<Object[]> findSearchFieldsNative(LocalDateTime updatedSince, UUID afterCustomerId, int limit) {
+        // Includes deleted customers, with their status, so they can be dropped from the index
+        String sql = "SELECT customer_id, full_name, email, phone, status FROM customers WHERE updated_at >= ?";
+        if (afterCustomerId != null) {
+            sql += " AND customer_id > CAST(? AS UUID)";
         }
-        Long total = ((Number) countQuery.getSingleResult()).longValue();
+        sql += " ORDER BY customer_id LIMIT ?";
         
-        // Build query with pagination
-        String sql = "SELECT customer_id, email, phone, full_name, " +
-            "billing_line1, billing_line2, billing_city, billing_region, billing_postcode, billing_country, " +
-            "shipping_line1, shipping_line2, shipping_city, shipping_region, shipping_postcode, shipping_country, " +
-            "marketing_opt_in, status, created_at, updated_at, deleted_at " +
-            "FROM customers WHERE " + whereClause;
+        Query query = entityManager.createNativeQuery(sql, Object[].class);
+        int paramIndex = 1;
+        query.setParameter(paramIndex++, updatedSince);
+        if (afterCustomerId != null) {
+            query.setParameter(paramIndex++, afterCustomerId.toString());
+        }
+        query.setParameter(paramIndex, limit);
         
-        // Add sorting
-        if (pageable.getSort().isSorted()) {
-            String sortField = pageable.getSort().iterator().next().getProperty();
-            String sortDirection = pageable.getSort().iterator().next().getDirection().name();
-            
-            String dbSortField = sortField;
-            if ("createdAt".equals(sortField)) dbSortField = "created_at";
-            else if ("fullName".equals(sortField)) dbSortField = "full_name";
-            else if ("updatedAt".equals(sortField)) dbSortField = "updated_at";
-            
-            sql += " ORDER BY " + dbSortField + " " + sortDirection;
-        } else {
-            sql += " ORDER BY created_at DESC";
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public List<Object[]> findEmailsNative(LocalDateTime updatedSince, UUID afterCustomerId, int limit) {
+        // Includes deleted customers: the unique constraint on email covers them too
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        conditions.add("1 = 1");
+        if (updatedSince != null) {
+            conditions.add("updated_at >= ?");
+            params.add(updatedSince);
+        }
+        if (afterCustomerId != null) {
+            conditions.add("customer_id > CAST(? AS UUID)");
+            params.add(afterCustomerId.toString());
         }
+        params.add(limit);
         
-        sql += " LIMIT ? OFFSET ?";
+        Query query = entityManager.createNativeQuery(
+            "SELECT customer_id, email FROM customers WHERE " + String.join(" AND ", conditions) +
+            " ORDER BY customer_id LIMIT ?",
+            Object[].class
+        );
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
         
-        Query query = entityManager.createNativeQuery(sql, Object[].class);
-        paramIndex = 1;
-        if (q != null && !q.isEmpty()) {
-            String searchPattern = "%" + q + "%";
-            query.setParameter(paramIndex++, searchPattern);
-            query.setParameter(paramIndex++, searchPattern);
-            query.setParameter(paramIndex++, searchPattern);
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public Set<String> findExistingEmailsNative(Collection<String> normalizedEmails) {
+        Set<String> existing = new HashSet<>();
+        List<String> emails = new ArrayList<>(normalizedEmails);
+        for (int from = 0; from < emails.size(); from += IN_LIST_CHUNK) {
+            List<String> chunk = emails.subList(from, Math.min(from + IN_LIST_CHUNK, emails.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList(
+                "SELECT email FROM customers WHERE email IN (" + placeholders + ")",
+                String.class, chunk.toArray()));
         }
-        if (email != null && !email.isEmpty()) {
-            query.setParameter(paramIndex++, email);
+        return existing;
+    }
+
+    @Override
+    public void insertCustomersNative(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return;
         }
-        if (phone != null && !phone.isEmpty()) {
-            query.setParameter(paramIndex++, phone);
+        // Runs on the connection of the surrounding JPA transaction
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copyCustomers(connection.unwrap(PGConnection.class).getCopyAPI(), customers);
+            } else {
+                batchInsertCustomers(customers);
+            }
+            return null;
+        });
+    }
+
+    private void copyCustomers(CopyManager copyManager, List<Customer> customers) throws SQLException {
+        StringBuilder csv = new StringBuilder(customers.size() * 256);
+        for (Customer customer : customers) {
+            Object[] values = insertValues(customer);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                // Unquoted empty is NULL in COPY csv format; everything else is quoted
+                if (values[i] != null) {
+                    csv.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
         }
-        if (status != null) {
-            query.setParameter(paramIndex++, status.name());
+        try {
+            copyManager.copyIn("COPY customers (" + CUSTOMER_COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into customers failed", e);
+        }
+    }
+
+    private void batchInsertCustomers(List<Customer> customers) {
+        String placeholders = String.join(", ", Collections.nCopies(CUSTOMER_COLUMNS.split(",").length, "?"));
+        List<Object[]> rows = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            Object[] values = insertValues(customer);
+            // Drivers without UUID support (SQL Server) take the canonical string form
+            values[0] = values[0].toString();
+            rows.add(values);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customers (" + CUSTOMER_COLUMNS + ") VALUES (" + placeholders + ")", rows);
+    }
+
+    /**
+     * Column values in CUSTOMER_COLUMNS order.
+     */
+    private static Object[] insertValues(Customer customer) {
+        Address billing = customer.getBillingAddress() != null ? customer.getBillingAddress() : new Address();
+        Address shipping = customer.getShippingAddress() != null ? customer.getShippingAddress() : new Address();
+        return new Object[] {
+            customer.getCustomerId(), customer.getEmail(), customer.getPhone(), customer.getFullName(),
+            billing.getLine1(), billing.getLine2(), billing.getCity(), billing.getRegion(), billing.getPostcode(), billing.getCountry(),
+            shipping.getLine1(), shipping.getLine2(), shipping.getCity(), shipping.getRegion(), shipping.getPostcode(), shipping.getCountry(),
+            customer.getMarketingOptIn(), customer.getStatus().name(),
+            customer.getCreatedAt(), customer.getUpdatedAt(), customer.getDeletedAt(),
+            customer.getVersion() != null ? customer.getVersion() : 0L
+        };
+    }
+
+    private boolean isSqlServer() {
+        return datasourceUrl.startsWith("jdbc:sqlserver:");
+    }
+
+    /**
+     * Renders ids as a PostgreSQL array literal, bound as a single parameter and cast to UUID[].
+     */
+    private static String toUuidArrayLiteral(Collection<UUID> ids) {
+        StringBuilder literal = new StringBuilder("{");
+        for (UUID id : ids) {
+            if (literal.length() > 1) {
+                literal.append(',');
+            }
+            literal.append(id);
+        }
+        return literal.append('}').toString();
+    }
+
+    /**
+     * Fetches one keyset page: rows strictly after the keyset position in (sort column, customer_id) order.
+     * One extra row is read to decide whether another page follows, so no COUNT query is needed.
+     */
+    private Slice<Customer> findPage(List<String> conditions, List<Object> params, CustomerKeyset keyset, int limit) {
+        // Only whitelisted columns are ever concatenated into the SQL
+        String sortColumn = keyset.getSortColumn();
+        if (!CustomerKeyset.isSupportedColumn(sortColumn)) {
+            throw new IllegalArgumentException("Unsupported sort column: " + sortColumn);
+        }
+        String direction = keyset.isAscending() ? "ASC" : "DESC";
+        
+        if (!keyset.isFirstPage()) {
+            conditions.add("(" + sortColumn + ", customer_id) " + (keyset.isAscending() ? ">" : "<") + " (?, CAST(? AS UUID))");
+            params.add(keyset.getAfterSortValue());
+            params.add(keyset.getAfterCustomerId().toString());
+        }
+        
+        String sql = "SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE " + String.join(" AND ", conditions) +
+            " ORDER BY " + sortColumn + " " + direction + ", customer_id " + direction +
+            " LIMIT ?";
+        params.add(limit + 1);
+        
+        Query query = entityManager.createNativeQuery(sql, Object[].class);
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
         }
-        query.setParameter(paramIndex++, pageable.getPageSize());
-        query.setParameter(paramIndex, pageable.getOffset());
         
         @SuppressWarnings("unchecked")
         List<Object[]> results = query.getResultList();
+        boolean hasNext = results.size() > limit;
         List<Customer> customers = new ArrayList<>();
-        for (Object[] result : results) {
-            customers.add(mapResultToCustomer(result));
+        for (int i = 0; i < results.size() && i < limit; i++) {
+            customers.add(mapResultToCustomer(results.get(i)));
         }
         
-        return new PageImpl<>(customers, pageable, total);
+        return new SliceImpl<>(customers, PageRequest.ofSize(limit), hasNext);
     }
 }
-
@@ -0,0 +1,72 @@
+package com.example.repository;
+
+import com.example.model.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    @Query("SELECT r.idempotencyKey FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    List<String> findExpiredKeys(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Claims a key in {@code state} (IN_PROGRESS) whose lease has run out. Conditional on the lease the
+     * caller saw, so only one of several competing nodes wins.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.leaseExpiresAt = :newLease, r.expiresAt = :expiresAt " +
+           "WHERE r.idempotencyKey = :key AND r.state = :state " +
+           "AND r.leaseExpiresAt = :seenLease")
+    int takeOverExpiredLease(@Param("key") String key,
+                             @Param("state") IdempotencyRecord.State state,
+                             @Param("requestHash") String requestHash,
+                             @Param("seenLease") LocalDateTime seenLease,
+                             @Param("newLease") LocalDateTime newLease,
+                             @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Extends the caller's own lease, conditional on the lease it holds. Run first in the
+     * operation's transaction: the row lock it takes is held until commit, so a takeover
+     * from another node waits and then finds the key completed (or released on rollback).
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.leaseExpiresAt = :newLease " +
+           "WHERE r.idempotencyKey = :key AND r.state = :state AND r.leaseExpiresAt = :heldLease")
+    int renewLease(@Param("key") String key,
+                   @Param("state") IdempotencyRecord.State state,
+                   @Param("heldLease") LocalDateTime heldLease,
+                   @Param("newLease") LocalDateTime newLease);
+    
+    /**
+     * Stores the response in the operation's transaction, so it commits together with the
+     * operation's own writes or not at all.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.state = :state, r.responseStatus = :responseStatus, " +
+           "r.responseLocation = :responseLocation, r.responseBody = :responseBody, r.leaseExpiresAt = NULL " +
+           "WHERE r.idempotencyKey = :key AND r.leaseExpiresAt = :heldLease")
+    int complete(@Param("key") String key,
+                 @Param("state") IdempotencyRecord.State state,
+                 @Param("heldLease") LocalDateTime heldLease,
+                 @Param("responseStatus") Integer responseStatus,
+                 @Param("responseLocation") String responseLocation,
+                 @Param("responseBody") String responseBody);
+    
+    /**
+     * Drops the caller's claim after a failed operation, unless another node has taken it over.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+           "WHERE r.idempotencyKey = :key AND r.state = :state AND r.leaseExpiresAt = :heldLease")
+    int release(@Param("key") String key,
+                @Param("state") IdempotencyRecord.State state,
+                @Param("heldLease") LocalDateTime heldLease);
+}
@@ -0,0 +1,43 @@
+package com.example.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Counter rows in number_blocks for hi/lo allocation. Claiming a block is a single
+ * UPDATE ... RETURNING on the counter's row, so concurrent claims (on any node) serialize
+ * on that row lock and always get disjoint ranges, whatever block size each one asks for.
+ */
+@Repository
+public class NumberBlockRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    /**
+     * Reserves {@code size} numbers of the named counter and returns the first; the block is
+     * [first, first + size). Run it in a short transaction of its own so the row lock is
+     * released straight away.
+     */
+    public long claimBlock(String name, int size) {
+        String sql = isSqlServer()
+                ? "UPDATE number_blocks SET next_value = next_value + ? OUTPUT INSERTED.next_value WHERE name = ?"
+                : "UPDATE number_blocks SET next_value = next_value + ? WHERE name = ? RETURNING next_value";
+        try {
+            Long next = jdbcTemplate.queryForObject(sql, Long.class, size, name);
+            return next - size;
+        } catch (EmptyResultDataAccessException e) {
+            throw new IllegalStateException("No number_blocks row for '" + name + "'; run the Flyway migrations", e);
+        }
+    }
+
+    private boolean isSqlServer() {
+        return datasourceUrl.startsWith("jdbc:sqlserver:");
+    }
+}
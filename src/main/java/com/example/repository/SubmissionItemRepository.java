@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface SubmissionItemRepository extends JpaRepository<SubmissionItem, UUID> {
+public interface SubmissionItemRepository extends JpaRepository<SubmissionItem, UUID>, SubmissionItemRepositoryCustom {
     
     List<SubmissionItem> findBySubmission_SubmissionId(UUID submissionId);
     
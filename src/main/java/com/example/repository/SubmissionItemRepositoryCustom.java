@@ -0,0 +1,14 @@
+package com.example.repository;
+
+import com.example.dto.SubmissionItemLite;
+import com.example.model.Submission;
+import org.springframework.data.domain.Slice;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface SubmissionItemRepositoryCustom {
+    Slice<SubmissionItemLite> findItemsBySubmissionNative(UUID submissionId, Integer afterLineNumber, int limit);
+    Slice<SubmissionItemLite> findItemsByStatusNative(Submission.SubmissionStatus status, UUID afterSubmissionId, Integer afterLineNumber, int limit);
+    void streamItemsByStatusNative(Submission.SubmissionStatus status, int fetchSize, Consumer<SubmissionItemLite> consumer);
+}
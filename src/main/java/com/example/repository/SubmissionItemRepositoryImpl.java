@@ -0,0 +1,134 @@
+package com.example.repository;
+
+import com.example.dto.SubmissionItemLite;
+import com.example.model.Submission;
+import com.example.model.SubmissionItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Item listings read straight into {@link SubmissionItemLite}: no entities are hydrated,
+ * so nothing lands in the persistence context and the lazy submission association is never touched.
+ */
+@Repository
+public class SubmissionItemRepositoryImpl implements SubmissionItemRepositoryCustom {
+
+    private static final String ITEM_COLUMNS = "i.item_id, i.submission_id, i.line_number, i.game, i.free_text_line, " +
+        "i.customer_notes, i.requested_photo_slots, i.front_photo_id, i.back_photo_id, i.enrichment_status, " +
+        "i.enrichment_confidence, i.matched_catalog_id, i.created_at";
+
+    // Status listings walk idx_submissions_status_created_at, then each submission's items by line number
+    private static final String STATUS_FROM = " FROM submissions s JOIN submission_items i ON i.submission_id = s.submission_id" +
+        " WHERE s.status = ?";
+    private static final String STATUS_ORDER = " ORDER BY s.created_at, s.submission_id, i.line_number";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * One page of a submission's items in line_number order, after {@code afterLineNumber}
+     * (from the start when null). One extra row is read to decide whether another page follows.
+     */
+    @Override
+    public Slice<SubmissionItemLite> findItemsBySubmissionNative(UUID submissionId, Integer afterLineNumber, int limit) {
+        List<Object> params = new ArrayList<>();
+        params.add(submissionId);
+        String sql = "SELECT " + ITEM_COLUMNS + " FROM submission_items i WHERE i.submission_id = ?";
+        if (afterLineNumber != null) {
+            sql += " AND i.line_number > ?";
+            params.add(afterLineNumber);
+        }
+        sql += " ORDER BY i.line_number LIMIT ?";
+        params.add(limit + 1);
+        return toSlice(jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs), params.toArray()), limit);
+    }
+
+    /**
+     * One page of the items of every submission in {@code status}, ordered by
+     * (submission created_at, submission_id, line_number). The cursor carries only the last
+     * row's submission id and line number; its created_at is looked up by primary key in the
+     * same statement.
+     */
+    @Override
+    public Slice<SubmissionItemLite> findItemsByStatusNative(Submission.SubmissionStatus status, UUID afterSubmissionId,
+                                                             Integer afterLineNumber, int limit) {
+        List<Object> params = new ArrayList<>();
+        params.add(status.getDisplayValue());
+        String sql = "SELECT " + ITEM_COLUMNS + STATUS_FROM;
+        if (afterSubmissionId != null) {
+            // The three-column row spans both tables, so it only filters; the redundant
+            // submissions-only bound is what lets the status index seek past earlier pages
+            sql += " AND (s.created_at, s.submission_id) >= " +
+                "((SELECT created_at FROM submissions WHERE submission_id = ?), ?)" +
+                " AND (s.created_at, s.submission_id, i.line_number) > " +
+                "((SELECT created_at FROM submissions WHERE submission_id = ?), ?, ?)";
+            params.add(afterSubmissionId);
+            params.add(afterSubmissionId);
+            params.add(afterSubmissionId);
+            params.add(afterSubmissionId);
+            params.add(afterLineNumber);
+        }
+        sql += STATUS_ORDER + " LIMIT ?";
+        params.add(limit + 1);
+        return toSlice(jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs), params.toArray()), limit);
+    }
+
+    @Override
+    public void streamItemsByStatusNative(Submission.SubmissionStatus status, int fetchSize, Consumer<SubmissionItemLite> consumer) {
+        String sql = "SELECT " + ITEM_COLUMNS + STATUS_FROM + STATUS_ORDER;
+        // Server-side cursor inside the caller's transaction; see CustomerRepositoryImpl.streamCustomersNative
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, status.getDisplayValue());
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapRow(resultSet)));
+    }
+
+    static SubmissionItemLite mapRow(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(13);
+        return SubmissionItemLite.builder()
+                .itemId(uuid(rs.getObject(1)))
+                .submissionId(uuid(rs.getObject(2)))
+                .lineNumber(rs.getInt(3))
+                .game(SubmissionItem.GameType.valueOf(rs.getString(4)))
+                .freeTextLine(rs.getString(5))
+                .customerNotes(rs.getString(6))
+                .requestedPhotoSlots(rs.getInt(7))
+                .frontPhotoId(rs.getString(8))
+                .backPhotoId(rs.getString(9))
+                .enrichmentStatus(SubmissionItem.EnrichmentStatus.valueOf(rs.getString(10)))
+                .enrichmentConfidence(rs.getObject(11) != null ? rs.getDouble(11) : null)
+                .matchedCatalogId(rs.getString(12))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build();
+    }
+
+    private static Slice<SubmissionItemLite> toSlice(List<SubmissionItemLite> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<SubmissionItemLite> content = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        return new SliceImpl<>(content, PageRequest.ofSize(limit), hasNext);
+    }
+
+    // PostgreSQL returns UUID as java.util.UUID directly, but handle both cases
+    private static UUID uuid(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (value instanceof UUID) ? (UUID) value : UUID.fromString(value.toString());
+    }
+}
@@ -1,8 +1,6 @@
 package com.example.repository;
 
 import com.example.model.Submission;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,24 +11,26 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface SubmissionRepository extends JpaRepository<Submission, UUID> {
+public interface SubmissionRepository extends JpaRepository<Submission, UUID>, SubmissionRepositoryCustom {
     
     List<Submission> findByCustomerId(UUID customerId);
     
-    Optional<Submission> findBySubmissionNumber(String submissionNumber);
+    // The intake code is an inverse one-to-one, which Hibernate would otherwise load with one select per submission
+    @Query("SELECT s FROM Submission s LEFT JOIN FETCH s.intakeCode WHERE s.submissionId = :submissionId")
+    Optional<Submission> findWithIntakeCodeBySubmissionId(@Param("submissionId") UUID submissionId);
+    
+    @Query("SELECT s FROM Submission s LEFT JOIN FETCH s.intakeCode LEFT JOIN FETCH s.items WHERE s.submissionId = :submissionId")
+    Optional<Submission> findWithIntakeCodeAndItemsBySubmissionId(@Param("submissionId") UUID submissionId);
     
-    @Query("SELECT s FROM Submission s WHERE " +
-           "(:customerId IS NULL OR s.customerId = :customerId) AND " +
-           "(:status IS NULL OR s.status = :status) AND " +
-           "(:q IS NULL OR LOWER(s.submissionNumber) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(s.notesCustomer) LIKE LOWER(CONCAT('%', :q, '%')))")
-    Page<Submission> searchSubmissions(
-            @Param("customerId") UUID customerId,
-            @Param("status") Submission.SubmissionStatus status,
-            @Param("q") String q,
-            Pageable pageable
-    );
+    @Query("SELECT s FROM Submission s LEFT JOIN FETCH s.intakeCode WHERE s.customerId = :customerId")
+    List<Submission> findWithIntakeCodeByCustomerId(@Param("customerId") UUID customerId);
+    
+    Optional<Submission> findBySubmissionNumber(String submissionNumber);
     
     long countByCustomerId(UUID customerId);
+    
+    // Just the version, for answering conditional GETs without loading the submission
+    @Query("SELECT s.version FROM Submission s WHERE s.submissionId = :submissionId")
+    Optional<Long> findVersionBySubmissionId(@Param("submissionId") UUID submissionId);
 }
 
@@ -0,0 +1,19 @@
+package com.example.repository;
+
+import com.example.model.Submission;
+import com.example.model.SubmissionItem;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface SubmissionRepositoryCustom {
+    void insertSubmissionNative(Submission submission);
+
+    void insertSubmissionItemsNative(UUID submissionId, List<SubmissionItem> items);
+
+    Slice<Submission> searchSubmissions(UUID customerId, Submission.SubmissionStatus status, Submission.ServiceLevel serviceLevel,
+                                        LocalDateTime createdFrom, LocalDateTime createdTo, String numberPrefix,
+                                        LocalDateTime afterCreatedAt, UUID afterSubmissionId, int limit);
+}
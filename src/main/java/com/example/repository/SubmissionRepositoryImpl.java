@@ -0,0 +1,181 @@
+package com.example.repository;
+
+import com.example.model.Submission;
+import com.example.model.SubmissionIntakeCode;
+import com.example.model.SubmissionItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+public class SubmissionRepositoryImpl implements SubmissionRepositoryCustom {
+
+    private static final String INSERT_SUBMISSION =
+        "INSERT INTO submissions (submission_id, customer_id, submission_number, service_level, shipping_address_id, " +
+        "notes_customer, status, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM =
+        "INSERT INTO submission_items (item_id, submission_id, line_number, game, free_text_line, customer_notes, " +
+        "requested_photo_slots, front_photo_id, back_photo_id, enrichment_status, enrichment_confidence, " +
+        "matched_catalog_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_INTAKE_CODE =
+        "INSERT INTO submission_intake_codes (intake_code_id, submission_id, value, barcode_format, qr_value) " +
+        "VALUES (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    /**
+     * Inserts a new submission with its items and intake code in three round trips: the
+     * submission, every item in one JDBC batch (multi-row INSERTs on PostgreSQL with
+     * reWriteBatchedInserts=true), then the intake code. All ids, timestamps and the version
+     * must already be set; the entities are not attached to the persistence context.
+     * Runs on the connection of the surrounding JPA transaction.
+     */
+    @Override
+    public void insertSubmissionNative(Submission submission) {
+        // Explicit SQL types: untyped nulls make JdbcTemplate ask the driver for parameter metadata, a round trip on PostgreSQL
+        int uuid = isSqlServer() ? Types.VARCHAR : Types.OTHER;
+
+        jdbcTemplate.update(INSERT_SUBMISSION, new Object[] {
+            id(submission.getSubmissionId()), id(submission.getCustomerId()), submission.getSubmissionNumber(),
+            submission.getServiceLevel().name(), id(submission.getShippingAddressId()), submission.getNotesCustomer(),
+            submission.getStatus().getDisplayValue(), submission.getCreatedAt(), submission.getUpdatedAt(),
+            submission.getVersion()
+        }, new int[] {
+            uuid, uuid, Types.VARCHAR, Types.VARCHAR, uuid, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT
+        });
+
+        insertSubmissionItemsNative(submission.getSubmissionId(), submission.getItems());
+
+        SubmissionIntakeCode intakeCode = submission.getIntakeCode();
+        if (intakeCode != null) {
+            jdbcTemplate.update(INSERT_INTAKE_CODE, new Object[] {
+                id(intakeCode.getIntakeCodeId()), id(submission.getSubmissionId()), intakeCode.getValue(),
+                intakeCode.getBarcodeFormat().name(), intakeCode.getQrValue()
+            }, new int[] {uuid, uuid, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR});
+        }
+    }
+
+    /**
+     * Inserts items of an existing submission as one JDBC batch. Ids, line numbers and
+     * created_at must already be set.
+     */
+    @Override
+    public void insertSubmissionItemsNative(UUID submissionId, List<SubmissionItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int uuid = isSqlServer() ? Types.VARCHAR : Types.OTHER;
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (SubmissionItem item : items) {
+            rows.add(new Object[] {
+                id(item.getItemId()), id(submissionId), item.getLineNumber(), item.getGame().name(),
+                item.getFreeTextLine(), item.getCustomerNotes(), item.getRequestedPhotoSlots(), item.getFrontPhotoId(),
+                item.getBackPhotoId(), item.getEnrichmentStatus().name(), item.getEnrichmentConfidence(),
+                item.getMatchedCatalogId(), item.getCreatedAt()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM, rows, new int[] {
+            uuid, uuid, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.VARCHAR, Types.TIMESTAMP
+        });
+    }
+
+    /**
+     * One keyset page of submissions, newest first in (created_at, submission_id) order,
+     * starting after the given position (from the top when null). Filters are optional;
+     * createdFrom is inclusive, createdTo exclusive. {@code numberPrefix} is matched with
+     * LIKE 'prefix%' so the submission_number index can serve it. Returns managed entities
+     * with the intake code fetch-joined, so expanded items can be batch fetched.
+     * One extra row is read to decide whether another page follows.
+     */
+    @Override
+    public Slice<Submission> searchSubmissions(UUID customerId, Submission.SubmissionStatus status, Submission.ServiceLevel serviceLevel,
+                                               LocalDateTime createdFrom, LocalDateTime createdTo, String numberPrefix,
+                                               LocalDateTime afterCreatedAt, UUID afterSubmissionId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (customerId != null) {
+            conditions.add("s.customerId = :customerId");
+            params.put("customerId", customerId);
+        }
+        if (status != null) {
+            conditions.add("s.status = :status");
+            params.put("status", status);
+        }
+        if (serviceLevel != null) {
+            conditions.add("s.serviceLevel = :serviceLevel");
+            params.put("serviceLevel", serviceLevel);
+        }
+        if (createdFrom != null) {
+            conditions.add("s.createdAt >= :createdFrom");
+            params.put("createdFrom", createdFrom);
+        }
+        if (createdTo != null) {
+            conditions.add("s.createdAt < :createdTo");
+            params.put("createdTo", createdTo);
+        }
+        if (numberPrefix != null && !numberPrefix.isEmpty()) {
+            conditions.add("s.submissionNumber LIKE :numberPattern ESCAPE '\\'");
+            params.put("numberPattern", escapeLike(numberPrefix) + "%");
+        }
+        if (afterSubmissionId != null) {
+            // The OR alone is not an index range; the redundant upper bound on createdAt is
+            conditions.add("s.createdAt <= :afterCreatedAt");
+            conditions.add("(s.createdAt < :afterCreatedAt OR (s.createdAt = :afterCreatedAt AND s.submissionId < :afterSubmissionId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterSubmissionId", afterSubmissionId);
+        }
+
+        String jpql = "SELECT s FROM Submission s LEFT JOIN FETCH s.intakeCode" +
+            (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+            " ORDER BY s.createdAt DESC, s.submissionId DESC";
+        TypedQuery<Submission> query = entityManager.createQuery(jpql, Submission.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit + 1);
+
+        List<Submission> results = query.getResultList();
+        boolean hasNext = results.size() > limit;
+        List<Submission> content = hasNext ? new ArrayList<>(results.subList(0, limit)) : results;
+        return new SliceImpl<>(content, PageRequest.ofSize(limit), hasNext);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Drivers without UUID support (SQL Server) take the canonical string form.
+     */
+    private Object id(UUID id) {
+        return (id != null && isSqlServer()) ? id.toString() : id;
+    }
+
+    private boolean isSqlServer() {
+        return datasourceUrl.startsWith("jdbc:sqlserver:");
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.service;
+
+import com.example.dto.CustomerBatchCreateResponse;
+import com.example.dto.CustomerBatchRowResult;
+import com.example.dto.CustomerCreateRequest;
+import com.example.model.Customer;
+import com.example.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk customer create for partner onboarding.
+ *
+ * Rows are processed in chunks. Each chunk is validated, deduplicated by email against
+ * the rest of the batch, checked against existing customers with one set-based query and
+ * written in a single multi-row insert (COPY on PostgreSQL) in its own transaction, so a
+ * failing chunk never rolls back rows already reported as created. If the chunk insert
+ * still fails, for example because another writer took an email in the meantime, its
+ * rows are retried one by one to find the offending ones.
+ */
+@Service
+public class CustomerBulkService {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${customers.batch-create.max-rows:50000}")
+    private int maxRows;
+
+    @Value("${customers.batch-create.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * JSON array variant. Read element by element with the same cap as NDJSON, so an
+     * oversized array is rejected after maxRows + 1 rows instead of being buffered whole.
+     */
+    public CustomerBatchCreateResponse createCustomersFromJsonArray(InputStream in) throws IOException {
+        List<CustomerCreateRequest> requests;
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Body must be a JSON array of customers");
+            }
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                requests = List.of();
+            } else {
+                requests = readCapped(objectMapper.readerFor(CustomerCreateRequest.class).readValues(parser));
+            }
+            if (parser.nextToken() != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unexpected content after the JSON array");
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Malformed JSON at line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage());
+        }
+        return createCustomers(requests);
+    }
+
+    /**
+     * NDJSON variant: one customer per line. The row cap is enforced while reading, so an
+     * oversized body is rejected after maxRows + 1 rows instead of being buffered whole.
+     */
+    public CustomerBatchCreateResponse createCustomers(InputStream in) throws IOException {
+        List<CustomerCreateRequest> requests;
+        try (MappingIterator<CustomerCreateRequest> rows = objectMapper.readerFor(CustomerCreateRequest.class)
+                .readValues(in)) {
+            requests = readCapped(rows);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Malformed NDJSON at line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage());
+        }
+        return createCustomers(requests);
+    }
+
+    private CustomerBatchCreateResponse createCustomers(List<CustomerCreateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must contain at least one customer");
+        }
+        if (requests.size() > maxRows) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Batch exceeds the maximum of " + maxRows + " customers");
+        }
+
+        CustomerBatchRowResult[] results = new CustomerBatchRowResult[requests.size()];
+        // First row index per normalized email, across the whole batch
+        Map<String, Integer> firstIndexByEmail = new HashMap<>();
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, requests.size());
+            processChunk(requests, from, to, firstIndexByEmail, results);
+        }
+
+        int created = (int) Arrays.stream(results)
+                .filter(r -> r.getOutcome() == CustomerBatchRowResult.Outcome.CREATED)
+                .count();
+        return CustomerBatchCreateResponse.builder()
+                .received(requests.size())
+                .created(created)
+                .failed(requests.size() - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private List<CustomerCreateRequest> readCapped(MappingIterator<CustomerCreateRequest> rows) throws IOException {
+        List<CustomerCreateRequest> requests = new ArrayList<>();
+        while (rows.hasNextValue()) {
+            if (requests.size() == maxRows) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch exceeds the maximum of " + maxRows + " customers");
+            }
+            requests.add(rows.nextValue());
+        }
+        return requests;
+    }
+
+    private void processChunk(List<CustomerCreateRequest> requests, int from, int to,
+                              Map<String, Integer> firstIndexByEmail, CustomerBatchRowResult[] results) {
+        // Validate and dedupe within the batch
+        Map<Integer, String> emailByIndex = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            CustomerCreateRequest request = requests.get(i);
+            Map<String, Object> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = rowResult(i, CustomerBatchRowResult.Outcome.INVALID, "Validation failed", errors);
+                continue;
+            }
+            String normalizedEmail = request.getEmail().trim().toLowerCase();
+            Integer firstIndex = firstIndexByEmail.putIfAbsent(normalizedEmail, i);
+            if (firstIndex != null) {
+                results[i] = rowResult(i, CustomerBatchRowResult.Outcome.DUPLICATE_IN_BATCH,
+                        "Email already used by row " + firstIndex, null);
+                continue;
+            }
+            emailByIndex.put(i, normalizedEmail);
+        }
+
+        // One query for the chunk; emails the filter has definitely never seen are skipped
+        List<String> probe = emailByIndex.values().stream()
+                .filter(emailBloomFilter::mightContain)
+                .collect(Collectors.toList());
+        Set<String> existing = probe.isEmpty() ? Set.of() : customerRepository.findExistingEmailsNative(probe);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, Customer> pending = new LinkedHashMap<>();
+        for (Map.Entry<Integer, String> entry : emailByIndex.entrySet()) {
+            int index = entry.getKey();
+            if (existing.contains(entry.getValue())) {
+                results[index] = rowResult(index, CustomerBatchRowResult.Outcome.CONFLICT,
+                        "Customer with email already exists", null);
+                continue;
+            }
+            Customer customer = CustomerService.newCustomer(requests.get(index), entry.getValue());
+            // The insert bypasses JPA, so the @PrePersist timestamps are set here
+            customer.setCreatedAt(now);
+            customer.setUpdatedAt(now);
+            pending.put(index, customer);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(new ArrayList<>(pending.values()));
+            pending.forEach((index, customer) -> results[index] = created(index, customer));
+        } catch (DataAccessException e) {
+            System.err.println("WARNING: Batch insert of " + pending.size() + " customer(s) failed, retrying row by row: " + e.getMessage());
+            pending.forEach((index, customer) -> results[index] = insertOne(index, customer));
+        }
+    }
+
+    private CustomerBatchRowResult insertOne(int index, Customer customer) {
+        try {
+            insert(List.of(customer));
+            return created(index, customer);
+        } catch (DataIntegrityViolationException e) {
+            return rowResult(index, CustomerBatchRowResult.Outcome.CONFLICT, "Customer with email already exists", null);
+        } catch (DataAccessException e) {
+            return rowResult(index, CustomerBatchRowResult.Outcome.ERROR, e.getMostSpecificCause().getMessage(), null);
+        }
+    }
+
+    private void insert(List<Customer> customers) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> customerRepository.insertCustomersNative(customers));
+        // Committed: make the rows visible to the email filter and the search index
+        for (Customer customer : customers) {
+            emailBloomFilter.put(customer.getEmail());
+            customerSearchIndex.index(customer);
+        }
+    }
+
+    private Map<String, Object> validate(CustomerCreateRequest request) {
+        Map<String, Object> errors = new LinkedHashMap<>();
+        if (request == null) {
+            errors.put("customer", "Row is empty");
+            return errors;
+        }
+        for (ConstraintViolation<CustomerCreateRequest> violation : validator.validate(request)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static CustomerBatchRowResult created(int index, Customer customer) {
+        return CustomerBatchRowResult.builder()
+                .index(index)
+                .outcome(CustomerBatchRowResult.Outcome.CREATED)
+                .customerId(customer.getCustomerId())
+                .build();
+    }
+
+    private static CustomerBatchRowResult rowResult(int index, CustomerBatchRowResult.Outcome outcome,
+                                                    String message, Map<String, Object> details) {
+        return CustomerBatchRowResult.builder()
+                .index(index)
+                .outcome(outcome)
+                .message(message)
+                .details(details)
+                .build();
+    }
+}
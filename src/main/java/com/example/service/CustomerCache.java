@@ -0,0 +1,353 @@
+package com.example.service;
+
+import com.example.dto.CustomerResponse;
+import com.example.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read cache for customers keyed by customer_id, with a secondary email to id index.
+ *
+ * The hot tier is a bounded Caffeine cache (W-TinyLFU eviction). When the optional
+ * off-heap tier is enabled, entries evicted for size are demoted there as JSON and
+ * promoted back on their next hit. Both tiers keep the time an entry was first cached,
+ * so customers.cache.expire-after-write-seconds bounds its age in either tier.
+ * {@link CustomerService} invalidates entries on every write, both immediately and
+ * again after commit.
+ *
+ * A read that loaded its row before a write committed must not put it back after the
+ * write's invalidation: fills take a {@link #loadStamp()} first, and {@link #put} drops
+ * the entry again if the customer was invalidated since. Writes on other nodes reach this
+ * cache through {@link #syncWithDatabase()}, which polls for recently updated customers.
+ *
+ * Hit, miss and eviction counts of both tiers are published to Micrometer under the
+ * cache name "customers".
+ */
+@Component
+public class CustomerCache implements MeterBinder {
+
+    private static final int GENERATION_STRIPES = 1024;
+    private static final int SYNC_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${customers.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${customers.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${customers.cache.expire-after-write-seconds:600}")
+    private long expireAfterWriteSeconds;
+
+    @Value("${customers.cache.off-heap.enabled:false}")
+    private boolean offHeapEnabled;
+
+    @Value("${customers.cache.off-heap.slots:100000}")
+    private int offHeapSlots;
+
+    @Value("${customers.cache.off-heap.slot-bytes:2048}")
+    private int offHeapSlotBytes;
+
+    @Value("${customers.cache.off-heap.mapped-file:}")
+    private String offHeapMappedFile;
+
+    @Value("${customers.cache.sync-margin-seconds:30}")
+    private long syncMarginSeconds;
+
+    private Cache<UUID, Entry> heap;
+    private Cache<String, UUID> emailIndex;
+    private OffHeapCustomerStore offHeap;
+
+    private final AtomicLong offHeapHits = new AtomicLong();
+    private final AtomicLong offHeapMisses = new AtomicLong();
+
+    // Invalidation sequence, and per customer_id stripe the sequence of its last invalidation
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLongArray stripeInvalidatedAt = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong syncInvalidations = new AtomicLong();
+    private volatile LocalDateTime syncWatermark = LocalDateTime.now();
+
+    @PostConstruct
+    public void init() {
+        Caffeine<UUID, Entry> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<UUID, Entry>() {
+                    @Override
+                    public long expireAfterCreate(UUID customerId, Entry entry, long currentTime) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID customerId, Entry entry, long currentTime, long currentDuration) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID customerId, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats();
+        if (offHeapEnabled) {
+            offHeap = new OffHeapCustomerStore(offHeapSlots, offHeapSlotBytes, offHeapMappedFile);
+            heap = builder.evictionListener((UUID customerId, Entry entry, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && customerId != null && entry != null) {
+                    demote(customerId, entry);
+                }
+            }).build();
+        } else {
+            heap = builder.build();
+        }
+        emailIndex = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    public Optional<CustomerResponse> get(UUID customerId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = heap.getIfPresent(customerId);
+        if (entry != null || offHeap == null) {
+            return Optional.ofNullable(entry).map(e -> e.customer);
+        }
+
+        // Promotion is a fill like any other: it must not undo an invalidation that races it
+        long loadStamp = loadStamp();
+        OffHeapCustomerStore.Stored stored = offHeap.get(customerId,
+                System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(expireAfterWriteSeconds));
+        if (stored == null) {
+            offHeapMisses.incrementAndGet();
+            return Optional.empty();
+        }
+        CustomerResponse customer;
+        try {
+            customer = objectMapper.readValue(stored.value, CustomerResponse.class);
+        } catch (IOException e) {
+            offHeap.remove(customerId);
+            offHeapMisses.incrementAndGet();
+            return Optional.empty();
+        }
+        offHeap.remove(customerId);
+        heap.put(customerId, new Entry(customer, stored.writtenAtMillis, loadStamp));
+        if (stripeInvalidatedAt.get(stripe(customerId)) > loadStamp) {
+            heap.invalidate(customerId);
+            offHeapMisses.incrementAndGet();
+            return Optional.empty();
+        }
+        offHeapHits.incrementAndGet();
+        return Optional.of(customer);
+    }
+
+    /**
+     * Looks up by normalized email through the secondary index. The entry is only
+     * returned if it still carries that email, so a stale index entry reads as a miss.
+     */
+    public Optional<CustomerResponse> getByEmail(String normalizedEmail) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        UUID customerId = emailIndex.getIfPresent(normalizedEmail);
+        if (customerId == null) {
+            return Optional.empty();
+        }
+        Optional<CustomerResponse> customer = get(customerId);
+        if (customer.isPresent() && !normalizedEmail.equalsIgnoreCase(customer.get().getEmail())) {
+            emailIndex.invalidate(normalizedEmail);
+            return Optional.empty();
+        }
+        return customer;
+    }
+
+    /**
+     * Taken before the database read whose result will be {@link #put}.
+     */
+    public long loadStamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a customer read after {@code loadStamp} was taken. Checked after the put, not
+     * before: an invalidation that lands in between either removes the entry itself or is
+     * seen here. A false match on a shared stripe only costs a miss.
+     */
+    public void put(CustomerResponse customer, long loadStamp) {
+        if (!enabled) {
+            return;
+        }
+        UUID customerId = customer.getCustomerId();
+        heap.put(customerId, new Entry(customer, System.currentTimeMillis(), loadStamp));
+        if (customer.getEmail() != null) {
+            emailIndex.put(customer.getEmail().toLowerCase(), customerId);
+        }
+        if (stripeInvalidatedAt.get(stripe(customerId)) > loadStamp) {
+            heap.invalidate(customerId);
+        }
+    }
+
+    public void invalidate(UUID customerId, String... emails) {
+        // Recorded before the entry goes, so a put racing this call sees it
+        stripeInvalidatedAt.accumulateAndGet(stripe(customerId), invalidations.incrementAndGet(), Math::max);
+        heap.invalidate(customerId);
+        if (offHeap != null) {
+            offHeap.remove(customerId);
+        }
+        for (String email : emails) {
+            if (email != null) {
+                emailIndex.invalidate(email.toLowerCase());
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats heapStats = heap.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("heapSize", heap.estimatedSize());
+        stats.put("heapHits", heapStats.hitCount());
+        stats.put("heapMisses", heapStats.missCount());
+        stats.put("heapEvictions", heapStats.evictionCount());
+        stats.put("heapHitRate", heapStats.hitRate());
+        stats.put("offHeapEnabled", offHeap != null);
+        if (offHeap != null) {
+            stats.put("offHeapSize", offHeap.size());
+            stats.put("offHeapHits", offHeapHits.get());
+            stats.put("offHeapMisses", offHeapMisses.get());
+            stats.put("offHeapEvictions", offHeap.evictionCount());
+        }
+        stats.put("emailIndexSize", emailIndex.estimatedSize());
+        stats.put("syncInvalidations", syncInvalidations.get());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, heap, "customers");
+        if (offHeap != null) {
+            FunctionCounter.builder("cache.off.heap.hits", offHeapHits, AtomicLong::get)
+                    .tag("cache", "customers")
+                    .description("Heap misses served from the off-heap tier")
+                    .register(registry);
+            FunctionCounter.builder("cache.off.heap.misses", offHeapMisses, AtomicLong::get)
+                    .tag("cache", "customers")
+                    .description("Heap misses the off-heap tier could not serve")
+                    .register(registry);
+            FunctionCounter.builder("cache.off.heap.evictions", offHeap, OffHeapCustomerStore::evictionCount)
+                    .tag("cache", "customers")
+                    .description("Off-heap entries overwritten to make room")
+                    .register(registry);
+            Gauge.builder("cache.off.heap.size", offHeap, OffHeapCustomerStore::size)
+                    .tag("cache", "customers")
+                    .description("Entries in the off-heap tier")
+                    .register(registry);
+        }
+        FunctionCounter.builder("cache.sync.invalidations", syncInvalidations, AtomicLong::get)
+                .tag("cache", "customers")
+                .description("Entries dropped because the customer changed on any node")
+                .register(registry);
+    }
+
+    /**
+     * Drops customers updated on any node since the last poll. The window reaches back
+     * customers.cache.sync-margin-seconds further, for transactions that committed after
+     * the previous poll with an earlier updated_at; a write committing later than that is
+     * left to the TTL.
+     */
+    @Scheduled(fixedDelayString = "${customers.cache.sync-interval-ms:5000}",
+               initialDelayString = "${customers.cache.sync-interval-ms:5000}")
+    public void syncWithDatabase() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime pollStartedAt = LocalDateTime.now();
+        LocalDateTime since = syncWatermark.minusSeconds(syncMarginSeconds);
+        try {
+            UUID after = null;
+            while (true) {
+                List<Object[]> rows = customerRepository.findEmailsNative(since, after, SYNC_BATCH_SIZE);
+                for (Object[] row : rows) {
+                    after = (row[0] instanceof UUID) ? (UUID) row[0] : UUID.fromString(row[0].toString());
+                    invalidate(after, (String) row[1]);
+                }
+                syncInvalidations.addAndGet(rows.size());
+                if (rows.size() < SYNC_BATCH_SIZE) {
+                    break;
+                }
+            }
+            syncWatermark = pollStartedAt;
+        } catch (RuntimeException e) {
+            System.err.println("WARNING: Customer cache sync failed: " + e.getMessage());
+        }
+    }
+
+    private static int stripe(UUID customerId) {
+        return Math.floorMod(customerId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private long remainingNanos(Entry entry) {
+        long expiresAt = entry.writtenAtMillis + TimeUnit.SECONDS.toMillis(expireAfterWriteSeconds);
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+    }
+
+    private void demote(UUID customerId, Entry entry) {
+        try {
+            offHeap.put(customerId, objectMapper.writeValueAsBytes(entry.customer), entry.writtenAtMillis);
+        } catch (JsonProcessingException e) {
+            // Not demoted; the next read goes to the database
+            return;
+        }
+        // The listener runs after the entry left the heap, so an invalidation may have missed both tiers
+        if (stripeInvalidatedAt.get(stripe(customerId)) > entry.loadStamp) {
+            offHeap.remove(customerId);
+        }
+    }
+
+    /**
+     * A cached customer with the time it was first cached and the {@link #loadStamp()} of
+     * the read that produced it; both survive demotion and promotion.
+     */
+    private static final class Entry {
+        final CustomerResponse customer;
+        final long writtenAtMillis;
+        final long loadStamp;
+
+        Entry(CustomerResponse customer, long writtenAtMillis, long loadStamp) {
+            this.customer = customer;
+            this.writtenAtMillis = writtenAtMillis;
+            this.loadStamp = loadStamp;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.service;
+
+import com.example.dto.CustomerResponse;
+import com.example.model.Customer;
+import com.example.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams customers as NDJSON, one CustomerResponse per line, straight from a database
+ * cursor to the response. Memory use is bounded by the fetch size regardless of how many
+ * rows match, which is what the warehouse sync needs for a full-table pull.
+ */
+@Service
+public class CustomerExportService {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${customers.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Writes every customer matching the filters (same semantics as the list search,
+     * deleted customers excluded) in customer_id order. The caller owns the stream.
+     */
+    public long exportCustomers(String q, String email, String phone, Customer.CustomerStatus status,
+                                OutputStream out) throws IOException {
+        String normalizedEmail = (email != null) ? email.trim().toLowerCase() : null;
+        String searchTerm = (q != null) ? q.trim() : null;
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // The generator must not close the response stream; the container does that
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long[] written = {0};
+
+        // PostgreSQL only uses a server-side cursor for a fetch size inside a transaction
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(tx -> customerRepository.streamCustomersNative(
+                    searchTerm, normalizedEmail, phone, status, fetchSize, customer -> {
+                        try {
+                            generator.writeObject(CustomerResponse.fromEntity(customer));
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        written[0]++;
+                    }));
+        } catch (UncheckedIOException e) {
+            // Most likely the client went away; the cursor is closed with the transaction
+            throw e.getCause();
+        }
+        generator.flush();
+        return written[0];
+    }
+}
@@ -0,0 +1,482 @@
+package com.example.service;
+
+import com.example.model.Customer;
+import com.example.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over customer name, email and phone.
+ *
+ * It answers the same question as the SQL {@code LIKE '%q%'} search in
+ * {@code CustomerRepositoryImpl}: candidates are found by intersecting the trigram
+ * posting lists of the query and then verified with a substring check, so the
+ * result set is exact rather than fuzzy. Deleted customers are never indexed.
+ * Terms shorter than a trigram are left to the database for exact search; for typeahead
+ * they are answered from a map of one- and two-character prefixes of the name, each name
+ * word, the email and the phone, so no query walks every document.
+ *
+ * The index is built from the customers table once the application is ready and
+ * kept current by {@link CustomerService} after each committed write on this node.
+ * Writes on other nodes are picked up by {@link #syncWithDatabase()}, which re-reads
+ * customers updated since the index last caught up; {@link #coveredUntil()} tells the
+ * SQL search which recent rows it must still check itself. Until the build finishes,
+ * or when syncs have stopped succeeding, callers fall back to the database search.
+ */
+@Component
+public class CustomerSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Best first: score, then name, then id
+    private static final Comparator<Scored> RANK_ORDER = Comparator.comparingInt((Scored s) -> -s.score)
+            .thenComparing(s -> s.document.name)
+            .thenComparing(s -> s.document.customerId);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${customers.search-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${customers.search-index.max-candidates:10000}")
+    private int maxCandidates;
+
+    @Value("${customers.search-index.build-batch-size:5000}")
+    private int buildBatchSize;
+
+    @Value("${customers.search-index.sync-margin-seconds:30}")
+    private long syncMarginSeconds;
+
+    // 0 disables the check
+    @Value("${customers.search-index.max-staleness-ms:60000}")
+    private long maxStalenessMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Document> documents = new HashMap<>();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    // Prefixes shorter than a trigram, for typeahead on one or two characters
+    private final Map<String, Set<UUID>> shortPrefixes = new HashMap<>();
+
+    // Customers written while a build or sync is scanning; the scan must not overwrite them with older rows
+    private Set<UUID> touchedDuringBuild;
+    private Set<UUID> touchedDuringSync;
+    private volatile boolean ready = false;
+    // Every customer updated before this is reflected in the index
+    private volatile LocalDateTime coveredUntil;
+    private volatile long lastCaughtUpAtMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread builder = new Thread(this::rebuild, "customer-search-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Rebuilds the index from the customers table, streaming it in customer_id order.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            documents.clear();
+            postings.clear();
+            shortPrefixes.clear();
+            touchedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime scanStartedAt = LocalDateTime.now();
+        UUID after = null;
+        try {
+            while (true) {
+                List<Object[]> rows = customerRepository.findSearchFieldsNative(after, buildBatchSize);
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        UUID customerId = (row[0] instanceof UUID) ? (UUID) row[0] : UUID.fromString(row[0].toString());
+                        if (!touchedDuringBuild.contains(customerId)) {
+                            put(new Document(customerId, (String) row[1], (String) row[2], (String) row[3]));
+                        }
+                        after = customerId;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (rows.size() < buildBatchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Customer search index build failed, falling back to database search: " + e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            touchedDuringBuild = null;
+            coveredUntil = scanStartedAt.minusSeconds(syncMarginSeconds);
+            lastCaughtUpAtMs = System.currentTimeMillis();
+            ready = true;
+            System.out.println("CustomerSearchIndex: Indexed " + documents.size() + " customer(s) in "
+                    + (System.currentTimeMillis() - startedAt) + " ms");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Rows with an updated_at at or after this may not be reflected yet (written on another
+     * node since the last sync); null before the first build.
+     */
+    public LocalDateTime coveredUntil() {
+        return coveredUntil;
+    }
+
+    /**
+     * Re-indexes customers updated since the index last caught up, wherever they were
+     * written. The window reaches back customers.search-index.sync-margin-seconds further,
+     * for transactions that committed after the previous sync with an earlier updated_at.
+     */
+    @Scheduled(fixedDelayString = "${customers.search-index.sync-interval-ms:5000}",
+               initialDelayString = "${customers.search-index.sync-interval-ms:5000}")
+    public void syncWithDatabase() {
+        LocalDateTime since = coveredUntil;
+        if (!ready || since == null) {
+            return;
+        }
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            touchedDuringSync = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            UUID after = null;
+            while (true) {
+                List<Object[]> rows = customerRepository.findSearchFieldsNative(since, after, buildBatchSize);
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        UUID customerId = (row[0] instanceof UUID) ? (UUID) row[0] : UUID.fromString(row[0].toString());
+                        if (!touchedDuringSync.contains(customerId)) {
+                            removeDocument(customerId);
+                            if (!Customer.CustomerStatus.DELETED.name().equals(row[4])) {
+                                put(new Document(customerId, (String) row[1], (String) row[2], (String) row[3]));
+                            }
+                        }
+                        after = customerId;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (rows.size() < buildBatchSize) {
+                    break;
+                }
+            }
+            coveredUntil = syncStartedAt.minusSeconds(syncMarginSeconds);
+            lastCaughtUpAtMs = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            System.err.println("WARNING: Customer search index sync failed: " + e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringSync = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the customer's entry; deleted customers are removed instead.
+     */
+    public void index(Customer customer) {
+        if (customer.getStatus() == Customer.CustomerStatus.DELETED) {
+            remove(customer.getCustomerId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(customer.getCustomerId());
+            removeDocument(customer.getCustomerId());
+            put(new Document(customer.getCustomerId(), customer.getFullName(), customer.getEmail(), customer.getPhone()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID customerId) {
+        lock.writeLock().lock();
+        try {
+            markTouched(customerId);
+            removeDocument(customerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Exact set of non-deleted customers matching {@code q} the way the SQL LIKE search does.
+     * Empty when the index cannot answer: not built yet or no longer syncing, a term shorter
+     * than a trigram or with LIKE wildcards, or more matches than
+     * {@code customers.search-index.max-candidates}.
+     */
+    public Optional<Set<UUID>> candidates(String q) {
+        if (!isCurrent() || q == null || q.length() < GRAM_LENGTH || q.indexOf('%') >= 0 || q.indexOf('_') >= 0) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Set<UUID> matches = new HashSet<>();
+            for (Document document : scan(q)) {
+                matches.add(document.customerId);
+                if (matches.size() > maxCandidates) {
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for {@code q} in rank order, for typeahead.
+     * Exact and prefix matches on name or email rank above substring matches. Terms shorter
+     * than a trigram only match by prefix of the name, a name word, the email or the phone.
+     */
+    public Optional<List<UUID>> rank(String q, int limit) {
+        if (!isCurrent() || q == null || q.isEmpty() || limit <= 0) {
+            return Optional.empty();
+        }
+        String term = q.toLowerCase();
+        lock.readLock().lock();
+        try {
+            // Worst of the best so far on top; each match is scored once
+            PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, RANK_ORDER.reversed());
+            for (Document document : term.length() < GRAM_LENGTH ? prefixMatches(term, q) : scan(q)) {
+                Scored scored = new Scored(document, document.score(term, q));
+                if (best.size() < limit) {
+                    best.add(scored);
+                } else if (RANK_ORDER.compare(scored, best.peek()) < 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            }
+            List<Scored> top = new ArrayList<>(best);
+            top.sort(RANK_ORDER);
+            List<UUID> ranked = new ArrayList<>(top.size());
+            for (Scored scored : top) {
+                ranked.add(scored.document.customerId);
+            }
+            return Optional.of(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Built, and caught up recently enough that a missed change elsewhere is not hidden for long
+    private boolean isCurrent() {
+        return ready && (maxStalenessMs <= 0 || System.currentTimeMillis() - lastCaughtUpAtMs <= maxStalenessMs);
+    }
+
+    // Caller holds the read lock; term is shorter than a trigram
+    private List<Document> prefixMatches(String term, String rawTerm) {
+        List<Document> matches = new ArrayList<>();
+        for (UUID customerId : shortPrefixes.getOrDefault(term, Collections.emptySet())) {
+            Document document = documents.get(customerId);
+            if (document != null && document.matches(term, rawTerm)) {
+                matches.add(document);
+            }
+        }
+        return matches;
+    }
+
+    // Caller holds the read lock; q is at least a trigram long
+    private List<Document> scan(String q) {
+        String term = q.toLowerCase();
+        List<Document> matches = new ArrayList<>();
+        List<Set<UUID>> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            Set<UUID> posting = postings.get(gram);
+            if (posting == null) {
+                return matches;
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<UUID> smallest = lists.get(0);
+        for (UUID customerId : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(customerId);
+            }
+            Document document = documents.get(customerId);
+            if (inAll && document != null && document.matches(term, q)) {
+                matches.add(document);
+            }
+        }
+        return matches;
+    }
+
+    // Caller holds the write lock
+    private void put(Document document) {
+        documents.put(document.customerId, document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(document.customerId);
+        }
+        for (String prefix : document.shortPrefixes()) {
+            shortPrefixes.computeIfAbsent(prefix, p -> new HashSet<>()).add(document.customerId);
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeDocument(UUID customerId) {
+        Document existing = documents.remove(customerId);
+        if (existing == null) {
+            return;
+        }
+        for (String gram : existing.grams()) {
+            unlink(postings, gram, customerId);
+        }
+        for (String prefix : existing.shortPrefixes()) {
+            unlink(shortPrefixes, prefix, customerId);
+        }
+    }
+
+    private static void unlink(Map<String, Set<UUID>> lists, String key, UUID customerId) {
+        Set<UUID> list = lists.get(key);
+        if (list != null) {
+            list.remove(customerId);
+            if (list.isEmpty()) {
+                lists.remove(key);
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private void markTouched(UUID customerId) {
+        if (touchedDuringBuild != null) {
+            touchedDuringBuild.add(customerId);
+        }
+        if (touchedDuringSync != null) {
+            touchedDuringSync.add(customerId);
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM_LENGTH) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+        private final UUID customerId;
+        private final String name;
+        private final String email;
+        private final String phone;
+
+        private Document(UUID customerId, String fullName, String email, String phone) {
+            this.customerId = customerId;
+            this.name = fullName != null ? fullName.toLowerCase() : "";
+            this.email = email != null ? email.toLowerCase() : "";
+            // Phone is matched case-sensitively, like the SQL search
+            this.phone = phone != null ? phone : "";
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>(CustomerSearchIndex.grams(name));
+            grams.addAll(CustomerSearchIndex.grams(email));
+            grams.addAll(CustomerSearchIndex.grams(phone.toLowerCase()));
+            return grams;
+        }
+
+        // Lowercased, like the lookup term; matches() still checks the phone case-sensitively
+        private Set<String> shortPrefixes() {
+            Set<String> prefixes = new HashSet<>();
+            addShortPrefixes(prefixes, email);
+            addShortPrefixes(prefixes, phone.toLowerCase());
+            for (String word : name.split(" ")) {
+                addShortPrefixes(prefixes, word);
+            }
+            return prefixes;
+        }
+
+        private static void addShortPrefixes(Set<String> prefixes, String value) {
+            for (int length = 1; length < GRAM_LENGTH && length <= value.length(); length++) {
+                prefixes.add(value.substring(0, length));
+            }
+        }
+
+        private boolean matches(String term, String rawTerm) {
+            return name.contains(term) || email.contains(term) || phone.contains(rawTerm);
+        }
+
+        private int score(String term, String rawTerm) {
+            if (email.equals(term)) return 100;
+            if (name.equals(term)) return 90;
+            if (name.startsWith(term)) return 70;
+            if (email.startsWith(term)) return 60;
+            if (name.contains(" " + term)) return 50;
+            if (phone.startsWith(rawTerm)) return 40;
+            if (name.contains(term)) return 30;
+            if (email.contains(term)) return 20;
+            return 10;
+        }
+    }
+
+    private static final class Scored {
+        private final Document document;
+        private final int score;
+
+        private Scored(Document document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
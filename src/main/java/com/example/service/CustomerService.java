@@ -1,22 +1,37 @@
 package com.example.service;
 
 import com.example.dto.*;
+import com.example.model.Address;
 import com.example.model.Customer;
+import com.example.repository.CountMode;
+import com.example.repository.CustomerKeyset;
 import com.example.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,20 +40,67 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private CustomerSearchIndex customerSearchIndex;
+    
+    @Autowired
+    private CustomerCache customerCache;
+    
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${customers.changes.settle-seconds:5}")
+    private long changesSettleSeconds;
+    
+    @Value("${datasource.replicas.enabled:false}")
+    private boolean replicasEnabled;
+    
+    private TransactionTemplate primaryRead;
+    
+    @PostConstruct
+    public void init() {
+        // Read-write, so ReplicaRoutingDataSource sends it to the primary
+        primaryRead = new TransactionTemplate(transactionManager);
+        primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
     @Transactional
-    public CustomerResponse createCustomer(CustomerCreateRequest request, String idempotencyKey) {
+    public CustomerResponse createCustomer(CustomerCreateRequest request) {
         // Normalize email to lowercase
         String normalizedEmail = (request.getEmail() != null) ? request.getEmail().trim().toLowerCase() : null;
         if (normalizedEmail == null || normalizedEmail.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email is required");
         }
         
-        // Check for duplicate email
-        if (customerRepository.existsByEmail(normalizedEmail)) {
+        // Check for duplicate email; a definite miss in the email filter skips the round trip
+        if (emailBloomFilter.mightContain(normalizedEmail) && customerRepository.existsByEmail(normalizedEmail)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, 
                 "Customer with email already exists");
         }
         
+        Customer customer = newCustomer(request, normalizedEmail);
+        
+        // Flush now so the unique constraint, the final arbiter, surfaces here as a conflict
+        try {
+            customer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, 
+                "Customer with email already exists");
+        }
+        emailBloomFilter.put(normalizedEmail);
+        Customer created = customer;
+        evict(customer.getCustomerId(), normalizedEmail);
+        TransactionHooks.afterCommit(() -> customerSearchIndex.index(created));
+        return CustomerResponse.fromEntity(customer);
+    }
+    
+    /**
+     * New active customer from a create request; the email must already be normalized.
+     */
+    static Customer newCustomer(CustomerCreateRequest request, String normalizedEmail) {
         Customer customer = new Customer();
         customer.setCustomerId(UUID.randomUUID());
         customer.setEmail(normalizedEmail);
@@ -48,57 +110,54 @@ public class CustomerService {
         customer.setShippingAddress(request.getShippingAddress());
         customer.setMarketingOptIn(request.getMarketingOptIn() != null ? request.getMarketingOptIn() : false);
         customer.setStatus(Customer.CustomerStatus.ACTIVE);
-        
-        customer = customerRepository.save(customer);
-        return CustomerResponse.fromEntity(customer);
+        return customer;
     }
     
     public CustomerListResponse listCustomers(
             String q, String email, String phone, Customer.CustomerStatus status,
             Integer limit, String cursor, String sort, String order) {
+        return listCustomers(q, email, phone, status, limit, cursor, sort, order, CountMode.NONE);
+    }
+    
+    @Transactional(readOnly = true)
+    public CustomerListResponse listCustomers(
+            String q, String email, String phone, Customer.CustomerStatus status,
+            Integer limit, String cursor, String sort, String order, CountMode countMode) {
         
         // Default values
         int pageSize = (limit != null && limit > 0 && limit <= 200) ? limit : 50;
-        String sortField = (sort != null) ? sort : "createdAt";
-        Sort.Direction direction = ("asc".equalsIgnoreCase(order)) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        
-        // Handle cursor-based pagination
-        int pageNumber = 0;
-        if (cursor != null && !cursor.isEmpty()) {
-            try {
-                String decoded = new String(Base64.getDecoder().decode(cursor));
-                pageNumber = Integer.parseInt(decoded);
-            } catch (Exception e) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
-            }
-        }
+        String sortColumn = toSortColumn(sort != null ? sort : "createdAt");
+        boolean ascending = "asc".equalsIgnoreCase(order);
         
-        // Map sort field names for JPA (camelCase) and database (snake_case)
-        String jpaSortField = sortField;
-        String dbSortField = sortField;
-        if ("created_at".equals(sortField) || "createdAt".equals(sortField)) {
-            jpaSortField = "createdAt";
-            dbSortField = "created_at";
-        } else if ("full_name".equals(sortField) || "fullName".equals(sortField)) {
-            jpaSortField = "fullName";
-            dbSortField = "full_name";
-        } else if ("updated_at".equals(sortField) || "updatedAt".equals(sortField)) {
-            jpaSortField = "updatedAt";
-            dbSortField = "updated_at";
-        }
-        
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by(direction, jpaSortField));
+        // Handle keyset cursor: it carries the last (sort key, customer_id) of the previous page
+        CustomerKeyset keyset = (cursor != null && !cursor.isEmpty())
+                ? fromCursor(cursor, sortColumn, ascending)
+                : CustomerKeyset.firstPage(sortColumn, ascending);
         
         // Normalize email filter to lowercase
         String normalizedEmail = (email != null) ? email.trim().toLowerCase() : null;
         
-        Page<Customer> page;
+        String searchTerm = (q != null) ? q.trim() : null;
+        
+        // Resolve q against the in-memory index when it can answer, so the query seeks by id.
+        // The index is node-local and catches up on a schedule, so no candidates is not an
+        // empty answer: rows changed since it caught up are still checked by the query.
+        // Read the coverage first; if a sync lands in between, the window is only wider.
+        Set<UUID> candidateIds = null;
+        LocalDateTime candidatesChangedSince = null;
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            candidatesChangedSince = customerSearchIndex.coveredUntil();
+            if (candidatesChangedSince != null) {
+                candidateIds = customerSearchIndex.candidates(searchTerm).orElse(null);
+            }
+        }
+        
+        Slice<Customer> page;
         // Use native queries for pagination and search
         if (q == null && normalizedEmail == null && phone == null && status == null) {
-            page = customerRepository.findAllNative(pageable);
+            page = customerRepository.findAllNative(keyset, pageSize);
         } else {
-            String searchTerm = (q != null) ? q.trim() : null;
-            page = customerRepository.searchCustomersNative(searchTerm, normalizedEmail, phone, status, pageable);
+            page = customerRepository.searchCustomersNative(searchTerm, normalizedEmail, phone, status, candidateIds, candidatesChangedSince, keyset, pageSize);
         }
         
         List<CustomerResponse> items = page.getContent().stream()
@@ -107,16 +166,152 @@ public class CustomerService {
         
         String nextCursor = null;
         if (page.hasNext()) {
-            String nextPage = String.valueOf(pageNumber + 1);
-            nextCursor = Base64.getEncoder().encodeToString(nextPage.getBytes());
+            List<Customer> content = page.getContent();
+            nextCursor = toCursor(keyset.after(content.get(content.size() - 1)));
+        }
+        
+        // The total is optional: has-next already comes from reading one row past the page
+        Long totalCount = null;
+        if (countMode == CountMode.EXACT) {
+            totalCount = customerRepository.countCustomersNative(searchTerm, normalizedEmail, phone, status, candidateIds, candidatesChangedSince);
+        } else if (countMode == CountMode.ESTIMATED) {
+            totalCount = customerRepository.estimateCustomerCountNative(searchTerm, normalizedEmail, phone, status, candidateIds, candidatesChangedSince);
         }
         
         return CustomerListResponse.builder()
                 .items(items)
                 .nextCursor(nextCursor)
+                .totalCount(totalCount)
+                .totalCountEstimated(totalCount != null ? countMode == CountMode.ESTIMATED : null)
+                .build();
+    }
+    
+    /**
+     * Typeahead search: best matches for q by relevance, hydrated in a single query.
+     * Falls back to the database LIKE search ordered by name while the index is building.
+     */
+    @Transactional(readOnly = true)
+    public CustomerListResponse typeaheadCustomers(String q, Integer limit) {
+        if (q == null || q.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+        }
+        int size = (limit != null && limit > 0 && limit <= 50) ? limit : 10;
+        String searchTerm = q.trim();
+        
+        Optional<List<UUID>> ranked = customerSearchIndex.rank(searchTerm, size);
+        List<Customer> customers;
+        if (ranked.isPresent()) {
+            Map<UUID, Customer> byId = customerRepository.findByCustomerIdsNative(ranked.get()).stream()
+                    .collect(Collectors.toMap(Customer::getCustomerId, Function.identity()));
+            customers = ranked.get().stream()
+                    .map(byId::get)
+                    .filter(c -> c != null && c.getStatus() != Customer.CustomerStatus.DELETED)
+                    .collect(Collectors.toList());
+        } else {
+            customers = customerRepository.searchCustomersNative(searchTerm, null, null, null, null, null,
+                    CustomerKeyset.firstPage(CustomerKeyset.FULL_NAME, true), size).getContent();
+        }
+        
+        return CustomerListResponse.builder()
+                .items(customers.stream().map(CustomerResponse::fromEntity).collect(Collectors.toList()))
                 .build();
     }
     
+    /**
+     * Customers created, updated or soft-deleted after the position in {@code since}, in
+     * (updated_at, customer_id) order. Rows younger than the settle lag are held back: an
+     * updated_at is stamped before commit, so a slower transaction can still commit a row
+     * behind a position a client has already passed. Deliberately not read-only: a lagging
+     * replica could hide rows older than the settle lag, so this always reads the primary.
+     */
+    public CustomerChangesResponse listChanges(String since, Integer limit) {
+        int pageSize = (limit != null && limit > 0 && limit <= 1000) ? limit : 200;
+        CustomerKeyset keyset = (since != null && !since.isEmpty())
+                ? fromChangeToken(since)
+                : CustomerKeyset.firstPage(CustomerKeyset.UPDATED_AT, true);
+        LocalDateTime sinceUpdatedAt = (LocalDateTime) keyset.getAfterSortValue();
+        
+        Slice<Customer> page = customerRepository.findChangesNative(
+                LocalDateTime.now().minusSeconds(changesSettleSeconds), keyset, pageSize);
+        
+        List<CustomerChange> changes = new ArrayList<>();
+        for (Customer customer : page.getContent()) {
+            CustomerChange.ChangeType changeType;
+            if (customer.getStatus() == Customer.CustomerStatus.DELETED) {
+                changeType = CustomerChange.ChangeType.DELETED;
+            } else if (sinceUpdatedAt == null || customer.getCreatedAt().isAfter(sinceUpdatedAt)) {
+                changeType = CustomerChange.ChangeType.CREATED;
+            } else {
+                changeType = CustomerChange.ChangeType.UPDATED;
+            }
+            changes.add(CustomerChange.builder()
+                    .changeType(changeType)
+                    .customer(CustomerResponse.fromEntity(customer))
+                    .build());
+        }
+        
+        // With nothing new the client keeps polling from where it is
+        String nextToken = since;
+        if (!page.getContent().isEmpty()) {
+            List<Customer> content = page.getContent();
+            Customer last = content.get(content.size() - 1);
+            nextToken = CursorCodec.encode(last.getUpdatedAt().toString(), last.getCustomerId().toString());
+        }
+        
+        return CustomerChangesResponse.builder()
+                .changes(changes)
+                .nextToken(nextToken)
+                .hasMore(page.hasNext())
+                .build();
+    }
+    
+    private static CustomerKeyset fromChangeToken(String token) {
+        String[] parts = CursorCodec.decode(token, 2);
+        try {
+            return new CustomerKeyset(CustomerKeyset.UPDATED_AT, true,
+                    LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid change token");
+        }
+    }
+    
+    /**
+     * Maps the API sort field (snake_case or camelCase) to its database column.
+     */
+    private static String toSortColumn(String sortField) {
+        if ("created_at".equals(sortField) || "createdAt".equals(sortField)) {
+            return CustomerKeyset.CREATED_AT;
+        } else if ("full_name".equals(sortField) || "fullName".equals(sortField)) {
+            return CustomerKeyset.FULL_NAME;
+        } else if ("updated_at".equals(sortField) || "updatedAt".equals(sortField)) {
+            return CustomerKeyset.UPDATED_AT;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sort field: " + sortField);
+    }
+    
+    static String toCursor(CustomerKeyset keyset) {
+        return CursorCodec.encode(
+                keyset.getSortColumn(),
+                keyset.isAscending() ? "asc" : "desc",
+                keyset.getAfterCustomerId().toString(),
+                String.valueOf(keyset.getAfterSortValue()));
+    }
+    
+    static CustomerKeyset fromCursor(String cursor, String sortColumn, boolean ascending) {
+        String[] parts = CursorCodec.decode(cursor, 4);
+        // A cursor is only valid for the ordering it was issued for
+        if (!parts[0].equals(sortColumn) || !parts[1].equals(ascending ? "asc" : "desc")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match sort order");
+        }
+        try {
+            return new CustomerKeyset(sortColumn, ascending,
+                    CustomerKeyset.parseSortValue(sortColumn, parts[3]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public CustomerResponse getCustomerByEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email is required");
@@ -126,102 +321,223 @@ public class CustomerService {
         // Normalize to lowercase - emails are stored in lowercase
         String normalizedEmail = email.trim().toLowerCase();
         
-        // Use native query to avoid UUID conversion issues
-        Customer customer = customerRepository.findByEmailNative(normalizedEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                        "Customer not found with email: " + email));
+        CustomerResponse customer = customerCache.getByEmail(normalizedEmail).orElse(null);
+        if (customer == null) {
+            long loadStamp = customerCache.loadStamp();
+            // Use native query to avoid UUID conversion issues
+            customer = loadForCache(() -> customerRepository.findByEmailNative(normalizedEmail))
+                    .map(CustomerResponse::fromEntity)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
+                            "Customer not found with email: " + email));
+            customerCache.put(customer, loadStamp);
+        }
         
         // Return 404 for deleted customers
         if (customer.getStatus() == Customer.CustomerStatus.DELETED) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
         }
         
-        return CustomerResponse.fromEntity(customer);
+        return customer;
     }
     
+    @Transactional(readOnly = true)
     public CustomerResponse getCustomerById(UUID customerId) {
-        // Use native query with manual mapping to avoid UUID conversion issues
-        String customerIdString = customerId.toString();
-        Customer customer = customerRepository.findByCustomerIdNative(customerIdString)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
+        CustomerResponse customer = customerCache.get(customerId).orElse(null);
+        if (customer == null) {
+            long loadStamp = customerCache.loadStamp();
+            // Use native query with manual mapping to avoid UUID conversion issues
+            String customerIdString = customerId.toString();
+            customer = loadForCache(() -> customerRepository.findByCustomerIdNative(customerIdString))
+                    .map(CustomerResponse::fromEntity)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
+            customerCache.put(customer, loadStamp);
+        }
         
         // Return 404 for deleted customers (soft delete behavior)
         if (customer.getStatus() == Customer.CustomerStatus.DELETED) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
         }
         
-        return CustomerResponse.fromEntity(customer);
+        return customer;
     }
     
-    @Transactional
-    public CustomerResponse updateCustomer(UUID customerId, CustomerUpdateRequest request) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
-        
-        if (customer.getStatus() == Customer.CustomerStatus.DELETED) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
+    /**
+     * Resolves many ids at once: cache hits first, then a single query for the rest.
+     * Items come back in request order (duplicates collapsed); unknown and deleted ids,
+     * which getCustomerById would answer with 404, are listed in notFound.
+     */
+    @Transactional(readOnly = true)
+    public CustomerBatchGetResponse batchGetCustomers(List<UUID> customerIds) {
+        Set<UUID> requested = new LinkedHashSet<>();
+        for (UUID customerId : customerIds) {
+            if (customerId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "customerIds must not contain null");
+            }
+            requested.add(customerId);
         }
         
-        // Check email uniqueness if being updated
-        if (request.getEmail() != null) {
-            String normalizedEmail = request.getEmail().trim().toLowerCase();
-            if (!normalizedEmail.equals(customer.getEmail())) {
-                if (customerRepository.existsByEmailAndCustomerIdNot(normalizedEmail, customerId)) {
-                    throw new ResponseStatusException(HttpStatus.CONFLICT, 
-                        "Email already exists");
-                }
-                customer.setEmail(normalizedEmail);
+        Map<UUID, CustomerResponse> found = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID customerId : requested) {
+            Optional<CustomerResponse> cached = customerCache.get(customerId);
+            if (cached.isPresent()) {
+                found.put(customerId, cached.get());
+            } else {
+                misses.add(customerId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            long loadStamp = customerCache.loadStamp();
+            for (Customer customer : loadForCache(() -> customerRepository.findByCustomerIdsNative(misses))) {
+                CustomerResponse response = CustomerResponse.fromEntity(customer);
+                customerCache.put(response, loadStamp);
+                found.put(customer.getCustomerId(), response);
             }
         }
         
+        List<CustomerResponse> items = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID customerId : requested) {
+            CustomerResponse customer = found.get(customerId);
+            if (customer == null || customer.getStatus() == Customer.CustomerStatus.DELETED) {
+                notFound.add(customerId);
+            } else {
+                items.add(customer);
+            }
+        }
+        return CustomerBatchGetResponse.builder()
+                .items(items)
+                .notFound(notFound)
+                .build();
+    }
+    
+    @Transactional
+    public CustomerResponse updateCustomer(UUID customerId, CustomerUpdateRequest request) {
+        return updateCustomer(customerId, request, null);
+    }
+    
+    /**
+     * Partial update in one statement: UPDATE ... WHERE status = 'ACTIVE' returning the new row.
+     * Email uniqueness is left to the unique constraint rather than probed first. With an
+     * expected version (from If-Match) the update only applies at that version, else 412.
+     */
+    @Transactional
+    public CustomerResponse updateCustomer(UUID customerId, CustomerUpdateRequest request, Long expectedVersion) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (request.getEmail() != null) {
+            assignments.put("email", request.getEmail().trim().toLowerCase());
+        }
         if (request.getPhone() != null) {
-            customer.setPhone(request.getPhone());
+            assignments.put("phone", request.getPhone());
         }
         if (request.getFullName() != null) {
-            customer.setFullName(request.getFullName());
+            assignments.put("full_name", request.getFullName());
         }
         if (request.getBillingAddress() != null) {
-            customer.setBillingAddress(request.getBillingAddress());
+            putAddress(assignments, "billing_", request.getBillingAddress());
         }
         if (request.getShippingAddress() != null) {
-            customer.setShippingAddress(request.getShippingAddress());
+            putAddress(assignments, "shipping_", request.getShippingAddress());
         }
         if (request.getMarketingOptIn() != null) {
-            customer.setMarketingOptIn(request.getMarketingOptIn());
+            assignments.put("marketing_opt_in", request.getMarketingOptIn());
+        }
+        if (assignments.isEmpty()) {
+            // Nothing to change; leave updated_at alone so the change feed stays quiet
+            CustomerResponse current = getCustomerById(customerId);
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Customer has been modified");
+            }
+            return current;
         }
         
-        customer = customerRepository.save(customer);
+        Customer customer;
+        try {
+            customer = customerRepository.updateCustomerNative(customerId, Customer.CustomerStatus.ACTIVE, expectedVersion, assignments)
+                    .orElse(null);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, 
+                "Email already exists");
+        }
+        if (customer == null) {
+            // Still there and active means the version moved on under the client
+            boolean active = expectedVersion != null && customerRepository.findByCustomerIdNative(customerId.toString())
+                    .filter(c -> c.getStatus() == Customer.CustomerStatus.ACTIVE)
+                    .isPresent();
+            if (active) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Customer has been modified");
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
+        }
+        emailBloomFilter.put(customer.getEmail());
+        Customer updated = customer;
+        // A cached email index entry for the previous email no longer matches and reads as a miss
+        evict(customerId, customer.getEmail());
+        TransactionHooks.afterCommit(() -> customerSearchIndex.index(updated));
         return CustomerResponse.fromEntity(customer);
     }
     
     @Transactional
     public void deleteCustomer(UUID customerId) {
-        Customer customer = customerRepository.findById(customerId)
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put("status", Customer.CustomerStatus.DELETED.name());
+        assignments.put("deleted_at", LocalDateTime.now());
+        Customer customer = customerRepository.updateCustomerNative(customerId, Customer.CustomerStatus.ACTIVE, null, assignments)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
-        
-        if (customer.getStatus() == Customer.CustomerStatus.DELETED) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
-        }
-        
-        customer.setStatus(Customer.CustomerStatus.DELETED);
-        customer.setDeletedAt(LocalDateTime.now());
-        customerRepository.save(customer);
+        evict(customerId, customer.getEmail());
+        TransactionHooks.afterCommit(() -> customerSearchIndex.remove(customerId));
     }
     
     @Transactional
     public CustomerResponse restoreCustomer(UUID customerId) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
-        
-        if (customer.getStatus() != Customer.CustomerStatus.DELETED) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put("status", Customer.CustomerStatus.ACTIVE.name());
+        assignments.put("deleted_at", null);
+        Customer customer = customerRepository.updateCustomerNative(customerId, Customer.CustomerStatus.DELETED, null, assignments)
+                .orElse(null);
+        if (customer == null) {
+            // Only the failure path pays for telling "missing" from "not deleted"
+            if (!customerRepository.existsByCustomerIdNative(customerId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found");
+            }
             throw new ResponseStatusException(HttpStatus.CONFLICT, 
                 "Customer is not deleted");
         }
-        
-        customer.setStatus(Customer.CustomerStatus.ACTIVE);
-        customer.setDeletedAt(null);
-        customer = customerRepository.save(customer);
+        Customer restored = customer;
+        evict(customerId, customer.getEmail());
+        TransactionHooks.afterCommit(() -> customerSearchIndex.index(restored));
         return CustomerResponse.fromEntity(customer);
     }
+    
+    private static void putAddress(Map<String, Object> assignments, String prefix, Address address) {
+        assignments.put(prefix + "line1", address.getLine1());
+        assignments.put(prefix + "line2", address.getLine2());
+        assignments.put(prefix + "city", address.getCity());
+        assignments.put(prefix + "region", address.getRegion());
+        assignments.put(prefix + "postcode", address.getPostcode());
+        assignments.put(prefix + "country", address.getCountry());
+    }
+    
+    /**
+     * Runs a read whose result goes into the customer cache. Inside a read-only transaction
+     * it would be routed to a replica, and a lagging row would then be served from the cache
+     * for the whole TTL, long after the replica caught up; so with replicas enabled it runs
+     * in its own transaction on the primary.
+     */
+    private <T> T loadForCache(Supplier<T> read) {
+        if (!replicasEnabled || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return read.get();
+        }
+        return primaryRead.execute(status -> read.get());
+    }
+    
+    /**
+     * Drops cached reads for a written customer. Done again after commit so a read
+     * that raced the transaction cannot leave the pre-commit row cached.
+     */
+    private void evict(UUID customerId, String... emails) {
+        customerCache.invalidate(customerId, emails);
+        TransactionHooks.afterCommit(() -> customerCache.invalidate(customerId, emails));
+    }
 }
 
@@ -0,0 +1,199 @@
+package com.example.service;
+
+import com.example.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bloom filter of every email in the customers table, used to skip the duplicate-email
+ * probe on writes: a definite miss means no customer can have that email. The unique
+ * constraint on customers.email stays the final arbiter for anything the filter has not
+ * seen yet, such as rows written by another node since the last refresh.
+ *
+ * The filter is seeded once the application is ready, from a disk snapshot when one
+ * exists (then topped up with rows updated since the snapshot) or by streaming the
+ * email column. It is refreshed and re-snapshotted on a schedule and at shutdown.
+ * Until seeding completes every email is reported as possibly present.
+ */
+@Component
+public class EmailBloomFilter {
+
+    // Rows updated slightly before a scan started may commit after it; rescan that window next time
+    private static final long WATERMARK_MARGIN_SECONDS = 300;
+    private static final int SCAN_BATCH_SIZE = 5000;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${customers.email-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${customers.email-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${customers.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${customers.email-filter.snapshot-path:./data/email-filter.bin}")
+    private String snapshotPath;
+
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime watermark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread seeder = new Thread(this::seed, "email-filter-seed");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    /**
+     * False only when no customer has this email; true means "check the database".
+     */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(normalize(email));
+    }
+
+    public void put(String email) {
+        BloomFilter current = filter;
+        if (current != null && email != null) {
+            current.put(normalize(email));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${customers.email-filter.refresh-interval-ms:600000}",
+               initialDelayString = "${customers.email-filter.refresh-interval-ms:600000}")
+    public void refresh() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        try {
+            scanInto(current, watermark);
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            System.err.println("WARNING: Email filter refresh failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (filter != null) {
+            saveSnapshot();
+        }
+    }
+
+    private void seed() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            BloomFilter seeded = BloomFilter.create(expectedInsertions, falsePositiveRate);
+            LocalDateTime since = null;
+            BloomFilter snapshot = loadSnapshot();
+            if (snapshot != null && snapshot.hasSameShape(seeded)) {
+                seeded = snapshot;
+                since = watermark;
+            }
+            int scanned = scanInto(seeded, since);
+            filter = seeded;
+            System.out.println("EmailBloomFilter: Ready after scanning " + scanned + " email(s)"
+                    + (since != null ? " updated since snapshot " + since : "") + " in "
+                    + (System.currentTimeMillis() - startedAt) + " ms");
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: Email filter seeding failed, duplicate checks will always query the database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams emails (updated since the given time, or all when null) into the filter
+     * in customer_id batches and advances the watermark.
+     */
+    private int scanInto(BloomFilter target, LocalDateTime since) {
+        LocalDateTime scanStartedAt = LocalDateTime.now();
+        int scanned = 0;
+        UUID after = null;
+        while (true) {
+            List<Object[]> rows = customerRepository.findEmailsNative(since, after, SCAN_BATCH_SIZE);
+            for (Object[] row : rows) {
+                if (row[1] != null) {
+                    target.put(normalize((String) row[1]));
+                }
+                after = (row[0] instanceof UUID) ? (UUID) row[0] : UUID.fromString(row[0].toString());
+            }
+            scanned += rows.size();
+            if (rows.size() < SCAN_BATCH_SIZE) {
+                break;
+            }
+        }
+        watermark = scanStartedAt.minusSeconds(WATERMARK_MARGIN_SECONDS);
+        return scanned;
+    }
+
+    private BloomFilter loadSnapshot() {
+        Path path = Path.of(snapshotPath);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            LocalDateTime snapshotWatermark = LocalDateTime.parse(in.readUTF());
+            BloomFilter snapshot = BloomFilter.readFrom(in);
+            watermark = snapshotWatermark;
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("WARNING: Ignoring unreadable email filter snapshot " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void saveSnapshot() {
+        BloomFilter current = filter;
+        LocalDateTime currentWatermark = watermark;
+        if (current == null || currentWatermark == null) {
+            return;
+        }
+        Path path = Path.of(snapshotPath);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            // Write to a temp file and move it into place so a crash never leaves a torn snapshot
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeUTF(currentWatermark.toString());
+                current.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not save email filter snapshot to " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.service;
+
+import com.example.model.IdempotencyRecord;
+import com.example.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for create endpoints.
+ *
+ * The first call with a key records an IN_PROGRESS row, runs the operation and stores its
+ * response (status, Location, body); retries with the same key and body get that response
+ * replayed instead of running again. The operation runs in one transaction with two updates
+ * of its key: the first renews the lease it claimed and so locks the row, the last stores
+ * the response. The response therefore commits with the operation's writes or not at all,
+ * and a node trying to take over a lease that ran out while the operation is still going
+ * waits on the row lock and then finds the key completed.
+ *
+ * Within a node, concurrent retries wait for the running call without holding any lock and
+ * then replay from the in-memory front cache. Across nodes, a retry that finds the key in
+ * progress polls until the owner completes it, or takes the key over once the owner's lease
+ * has run out. Failed operations release the key so the client can retry. Keys expire after
+ * a TTL and are purged in batches on a schedule.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${idempotency.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${idempotency.expiry-batch-size:1000}")
+    private int expiryBatchSize;
+
+    // Calls running on this node, so a concurrent retry waits for the outcome instead of polling the table
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, IdempotencyRecord> completed;
+    private TransactionTemplate newTransaction;
+    private TransactionTemplate operationTransaction;
+
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+        // Key bookkeeping commits on its own, independent of the operation's transaction
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // The operation's @Transactional services join this one, so the response commits with their writes
+        operationTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs {@code action} at most once per (scope, key). Without a key the action simply runs.
+     *
+     * @param scope    operation name, so the same key can be used against different endpoints
+     * @param request  request body, fingerprinted to reject key reuse with a different request
+     * @param bodyType response body type, for replaying the stored body
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        String requestHash = fingerprint(request);
+
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            IdempotencyRecord cached = completed.getIfPresent(id);
+            if (cached != null) {
+                return replay(cached, requestHash, bodyType);
+            }
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(id, mine);
+            if (running == null) {
+                try {
+                    return runOnce(id, requestHash, bodyType, action);
+                } finally {
+                    inFlight.remove(id, mine);
+                    mine.complete(null);
+                }
+            }
+            // Completed, failed or taken over: look again either way
+            awaitLocal(running, deadline);
+        }
+    }
+
+    /**
+     * Drops keys past their TTL, a batch at a time to keep transactions short.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.expiry-interval-ms:300000}",
+               initialDelayString = "${idempotency.expiry-interval-ms:300000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        try {
+            while (true) {
+                List<String> expired = idempotencyRecordRepository.findExpiredKeys(now, PageRequest.ofSize(expiryBatchSize));
+                if (expired.isEmpty()) {
+                    break;
+                }
+                newTransaction.executeWithoutResult(tx -> idempotencyRecordRepository.deleteAllByIdInBatch(expired));
+                purged += expired.size();
+                if (expired.size() < expiryBatchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("WARNING: Idempotency key expiry failed: " + e.getMessage());
+        }
+        if (purged > 0) {
+            System.out.println("IdempotencyService: Purged " + purged + " expired key(s)");
+        }
+    }
+
+    private <T> ResponseEntity<T> runOnce(String id, String requestHash, Class<T> bodyType,
+                                          Supplier<ResponseEntity<T>> action) {
+        IdempotencyRecord claim = acquire(id, requestHash);
+        if (claim.getState() == IdempotencyRecord.State.COMPLETED) {
+            completed.put(id, claim);
+            return replay(claim, requestHash, bodyType);
+        }
+
+        LocalDateTime heldLease = claim.getLeaseExpiresAt();
+        LocalDateTime renewedLease = now().plusSeconds(leaseSeconds);
+        String[] responseBody = new String[1];
+        ResponseEntity<T> response;
+        try {
+            response = operationTransaction.execute(tx -> {
+                if (idempotencyRecordRepository.renewLease(id, IdempotencyRecord.State.IN_PROGRESS,
+                        heldLease, renewedLease) != 1) {
+                    throw new LeaseLostException();
+                }
+                ResponseEntity<T> result = action.get();
+                responseBody[0] = serialize(result.getBody());
+                if (idempotencyRecordRepository.complete(id, IdempotencyRecord.State.COMPLETED, renewedLease,
+                        result.getStatusCode().value(), result.getHeaders().getFirst("Location"), responseBody[0]) != 1) {
+                    // Row is locked since renewLease, so this means the action deleted or rewrote it
+                    throw new IllegalStateException("Idempotency-Key " + id + " changed while its operation ran");
+                }
+                return result;
+            });
+        } catch (LeaseLostException e) {
+            // Another node owns the key now; releasing it would drop their claim
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still in progress");
+        } catch (RuntimeException e) {
+            release(id, heldLease);
+            throw e;
+        }
+
+        claim.setState(IdempotencyRecord.State.COMPLETED);
+        claim.setResponseStatus(response.getStatusCode().value());
+        claim.setResponseLocation(response.getHeaders().getFirst("Location"));
+        claim.setResponseBody(responseBody[0]);
+        claim.setLeaseExpiresAt(null);
+        completed.put(id, claim);
+        return response;
+    }
+
+    private static void awaitLocal(CompletableFuture<Void> running, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        try {
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            running.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for Idempotency-Key");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally; the owner only signals that it is done
+        }
+    }
+
+    /**
+     * Claims the key for this call (an IN_PROGRESS record carrying this call's lease), or returns
+     * the COMPLETED record to replay. Waits for an in-progress call on another node until it
+     * completes, its lease runs out or the wait times out. Holds no lock while waiting.
+     */
+    private IdempotencyRecord acquire(String id, String requestHash) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            LocalDateTime now = now();
+            IdempotencyRecord existing = idempotencyRecordRepository.findById(id).orElse(null);
+
+            if (existing == null || existing.getExpiresAt().isBefore(now)) {
+                IdempotencyRecord claim = newRecord(id, requestHash, now);
+                try {
+                    newTransaction.executeWithoutResult(tx -> {
+                        if (existing != null) {
+                            idempotencyRecordRepository.deleteById(id);
+                            idempotencyRecordRepository.flush();
+                        }
+                        idempotencyRecordRepository.saveAndFlush(claim);
+                    });
+                    return claim;
+                } catch (DataIntegrityViolationException e) {
+                    // Another node inserted the key first; look again
+                    continue;
+                }
+            }
+
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw keyReused();
+            }
+            if (existing.getState() == IdempotencyRecord.State.COMPLETED) {
+                return existing;
+            }
+            if (existing.getLeaseExpiresAt().isBefore(now)) {
+                // Waits on the owner's row lock if it is in fact still running, then matches nothing
+                IdempotencyRecord claim = newRecord(id, requestHash, now);
+                Integer claimed = newTransaction.execute(tx -> idempotencyRecordRepository.takeOverExpiredLease(
+                        id, IdempotencyRecord.State.IN_PROGRESS, requestHash, existing.getLeaseExpiresAt(),
+                        claim.getLeaseExpiresAt(), claim.getExpiresAt()));
+                if (claimed != null && claimed == 1) {
+                    return claim;
+                }
+                continue;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for Idempotency-Key");
+            }
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private void release(String id, LocalDateTime heldLease) {
+        try {
+            newTransaction.executeWithoutResult(tx -> idempotencyRecordRepository.release(
+                    id, IdempotencyRecord.State.IN_PROGRESS, heldLease));
+        } catch (RuntimeException e) {
+            // The lease runs out on its own and a retry takes the key over
+            System.err.println("WARNING: Could not release Idempotency-Key " + id + ": " + e.getMessage());
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> bodyType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+        T body;
+        try {
+            body = record.getResponseBody() != null ? objectMapper.readValue(record.getResponseBody(), bodyType) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(record.getResponseStatus())
+                .header(REPLAYED_HEADER, "true");
+        if (record.getResponseLocation() != null) {
+            response.header("Location", record.getResponseLocation());
+        }
+        return response.body(body);
+    }
+
+    private IdempotencyRecord newRecord(String id, String requestHash, LocalDateTime now) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(id);
+        record.setRequestHash(requestHash);
+        record.setState(IdempotencyRecord.State.IN_PROGRESS);
+        record.setLeaseExpiresAt(now.plusSeconds(leaseSeconds));
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plusHours(ttlHours));
+        return record;
+    }
+
+    // Leases are compared for equality, so keep them at the columns' microsecond precision
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(json));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private static ResponseStatusException keyReused() {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+            "Idempotency-Key was already used with a different request");
+    }
+
+    /**
+     * The lease this call claimed is no longer its own: it ran out before the operation
+     * started and another node took the key over.
+     */
+    private static final class LeaseLostException extends RuntimeException {
+        private LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
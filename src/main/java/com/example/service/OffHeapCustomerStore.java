@@ -0,0 +1,118 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cold tier of {@link CustomerCache}: serialized customers in fixed-size slots outside the Java heap,
+ * either in a direct buffer or a memory-mapped file. Slots are reused in clock order once full,
+ * which evicts the oldest demoted entry. Entries larger than a slot are not stored. Each slot keeps
+ * the time its entry was first written to the cache, so an entry expires on the same schedule
+ * however often it moves between tiers.
+ */
+class OffHeapCustomerStore {
+
+    // Value length, then the original write time in epoch millis
+    private static final int HEADER_BYTES = 4 + 8;
+
+    private final ByteBuffer buffer;
+    private final int slotBytes;
+    private final UUID[] owners;
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private int clockHand = 0;
+    private long evictions = 0;
+
+    OffHeapCustomerStore(int slots, int slotBytes, String mappedFile) {
+        long capacity = (long) slots * slotBytes;
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap cache capacity must not exceed 2 GB, was " + capacity + " bytes");
+        }
+        this.slotBytes = slotBytes;
+        this.owners = new UUID[slots];
+        if (mappedFile == null || mappedFile.isEmpty()) {
+            this.buffer = ByteBuffer.allocateDirect((int) capacity);
+        } else {
+            try (FileChannel channel = FileChannel.open(Path.of(mappedFile),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map off-heap cache file " + mappedFile, e);
+            }
+        }
+    }
+
+    synchronized void put(UUID customerId, byte[] value, long writtenAtMillis) {
+        if (value.length + HEADER_BYTES > slotBytes) {
+            return;
+        }
+        Integer slot = slotById.get(customerId);
+        if (slot == null) {
+            slot = clockHand;
+            clockHand = (clockHand + 1) % owners.length;
+            if (owners[slot] != null) {
+                slotById.remove(owners[slot]);
+                evictions++;
+            }
+            owners[slot] = customerId;
+            slotById.put(customerId, slot);
+        }
+        int offset = slot * slotBytes;
+        buffer.putInt(offset, value.length);
+        buffer.putLong(offset + 4, writtenAtMillis);
+        buffer.put(offset + HEADER_BYTES, value);
+    }
+
+    /**
+     * Returns the entry unless it was written before {@code expiredBefore}; an expired
+     * entry is dropped and reads as a miss.
+     */
+    synchronized Stored get(UUID customerId, long expiredBefore) {
+        Integer slot = slotById.get(customerId);
+        if (slot == null) {
+            return null;
+        }
+        int offset = slot * slotBytes;
+        long writtenAtMillis = buffer.getLong(offset + 4);
+        if (writtenAtMillis < expiredBefore) {
+            slotById.remove(customerId);
+            owners[slot] = null;
+            return null;
+        }
+        byte[] value = new byte[buffer.getInt(offset)];
+        buffer.get(offset + HEADER_BYTES, value);
+        return new Stored(value, writtenAtMillis);
+    }
+
+    synchronized void remove(UUID customerId) {
+        Integer slot = slotById.remove(customerId);
+        if (slot != null) {
+            owners[slot] = null;
+        }
+    }
+
+    synchronized int size() {
+        return slotById.size();
+    }
+
+    synchronized long evictionCount() {
+        return evictions;
+    }
+
+    static final class Stored {
+        final byte[] value;
+        final long writtenAtMillis;
+
+        Stored(byte[] value, long writtenAtMillis) {
+            this.value = value;
+            this.writtenAtMillis = writtenAtMillis;
+        }
+    }
+}
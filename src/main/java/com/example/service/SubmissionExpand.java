@@ -0,0 +1,51 @@
+package com.example.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Related data a submission read can embed, from the comma-separated expand parameter.
+ */
+public enum SubmissionExpand {
+    ITEMS("items"),
+    INTAKE_CODE("intakeCode"),
+    CUSTOMER("customer");
+
+    private final String paramValue;
+
+    SubmissionExpand(String paramValue) {
+        this.paramValue = paramValue;
+    }
+
+    public String getParamValue() {
+        return paramValue;
+    }
+
+    public static Set<SubmissionExpand> parse(String expand) {
+        Set<SubmissionExpand> result = EnumSet.noneOf(SubmissionExpand.class);
+        if (expand == null || expand.isBlank()) {
+            return result;
+        }
+        for (String part : expand.split(",")) {
+            String value = part.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            SubmissionExpand match = null;
+            for (SubmissionExpand candidate : values()) {
+                if (candidate.paramValue.equalsIgnoreCase(value)) {
+                    match = candidate;
+                }
+            }
+            if (match == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown expand value: " + value + " (allowed: items, intakeCode, customer)");
+            }
+            result.add(match);
+        }
+        return result;
+    }
+}
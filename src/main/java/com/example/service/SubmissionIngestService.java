@@ -0,0 +1,259 @@
+package com.example.service;
+
+import com.example.dto.SubmissionIngestHeader;
+import com.example.dto.SubmissionIngestLineError;
+import com.example.dto.SubmissionIngestResponse;
+import com.example.dto.SubmissionIntakeCodeDto;
+import com.example.dto.SubmissionItemCreateLite;
+import com.example.dto.SubmissionLite;
+import com.example.model.Submission;
+import com.example.model.SubmissionItem;
+import com.example.repository.SubmissionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NDJSON submission ingest for bulk dealers.
+ *
+ * The body is a header line ({@link SubmissionIngestHeader}) followed by one item per line.
+ * Lines are read and parsed one at a time while the request is still arriving, validated,
+ * and written in fixed-size JDBC batches inside a single transaction, so memory use is
+ * bounded by the batch size however many items are sent. A malformed or invalid line is
+ * reported by its line number and skipped; in atomic mode it rolls the whole submission back,
+ * and no further items are written: the rest of the body is only read to report its errors.
+ * Line numbers of the stored items count accepted items only.
+ */
+@Service
+public class SubmissionIngestService {
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${submissions.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${submissions.ingest.max-items:100000}")
+    private int maxItems;
+
+    @Value("${submissions.ingest.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private ObjectReader headerReader;
+    private ObjectReader itemReader;
+
+    @PostConstruct
+    public void init() {
+        // Each line must hold exactly one JSON value
+        headerReader = objectMapper.readerFor(SubmissionIngestHeader.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        itemReader = objectMapper.readerFor(SubmissionItemCreateLite.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    /**
+     * Reads the whole stream. Returns a response without a submission when nothing was
+     * stored: no valid items, or atomic mode with at least one rejected line.
+     */
+    public SubmissionIngestResponse ingest(InputStream in, boolean atomic) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        LineCursor cursor = new LineCursor(reader);
+        SubmissionIngestHeader header = readHeader(cursor);
+        submissionService.verifyCustomerExists(header.getCustomerId());
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            return transaction.execute(status -> {
+                SubmissionIngestResponse response = ingestItems(header, cursor, atomic);
+                if (response.getSubmission() == null) {
+                    status.setRollbackOnly();
+                }
+                return response;
+            });
+        } catch (UncheckedIOException e) {
+            // Most likely the client went away mid-upload; the transaction has rolled back
+            throw e.getCause();
+        }
+    }
+
+    private SubmissionIngestResponse ingestItems(SubmissionIngestHeader header, LineCursor cursor, boolean atomic) {
+        LocalDateTime now = LocalDateTime.now();
+        Submission submission = submissionService.newSubmission(header.getCustomerId(), header.getServiceLevel(),
+                header.getNotesCustomer(), now);
+        submission.setItems(List.of());
+        submission.setVersion(0L);
+        // The submission row goes first so the item batches can reference it
+        submissionRepository.insertSubmissionNative(submission);
+
+        List<SubmissionItem> batch = new ArrayList<>(batchSize);
+        List<SubmissionIngestLineError> errors = new ArrayList<>();
+        int received = 0;
+        int accepted = 0;
+        // Atomic mode after a rejected line: the rest is only read to report its errors
+        boolean rollingBack = false;
+        String line;
+        while ((line = cursor.next()) != null) {
+            received++;
+            SubmissionItemCreateLite itemRequest;
+            try {
+                itemRequest = itemReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                addError(errors, received - accepted, cursor.lineNumber(), "Malformed JSON: " + e.getOriginalMessage(), null);
+                rollingBack |= atomic;
+                continue;
+            }
+            Map<String, Object> violations = validate(itemRequest);
+            if (!violations.isEmpty()) {
+                addError(errors, received - accepted, cursor.lineNumber(), "Validation failed", violations);
+                rollingBack |= atomic;
+                continue;
+            }
+            if (accepted == maxItems) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Submission exceeds the maximum of " + maxItems + " items");
+            }
+            accepted++;
+            if (rollingBack) {
+                // Whatever was still pending would only be rolled back
+                batch.clear();
+                continue;
+            }
+            batch.add(SubmissionService.newItem(submission, accepted, itemRequest, now));
+            if (batch.size() == batchSize) {
+                submissionRepository.insertSubmissionItemsNative(submission.getSubmissionId(), batch);
+                batch.clear();
+            }
+        }
+        if (!rollingBack) {
+            submissionRepository.insertSubmissionItemsNative(submission.getSubmissionId(), batch);
+        }
+
+        int rejected = received - accepted;
+        boolean stored = accepted > 0 && !rollingBack;
+        System.out.println("SubmissionIngestService: " + (stored ? "Stored " + submission.getSubmissionNumber() : "Rolled back")
+                + " with " + accepted + " of " + received + " item(s)");
+        return SubmissionIngestResponse.builder()
+                .submission(stored ? SubmissionLite.fromEntity(submission) : null)
+                .intakeCode(stored ? SubmissionIntakeCodeDto.fromEntity(submission.getIntakeCode()) : null)
+                .received(received)
+                .accepted(stored ? accepted : 0)
+                .rejected(rejected)
+                .errors(errors)
+                .build();
+    }
+
+    private SubmissionIngestHeader readHeader(LineCursor cursor) {
+        String line;
+        try {
+            line = cursor.next();
+        } catch (UncheckedIOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not read request body");
+        }
+        if (line == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing submission header line");
+        }
+        SubmissionIngestHeader header;
+        try {
+            header = headerReader.readValue(line);
+        } catch (IOException e) {
+            String reason = (e instanceof JsonProcessingException) ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Malformed submission header at line " + cursor.lineNumber() + ": " + reason);
+        }
+        for (ConstraintViolation<SubmissionIngestHeader> violation : validator.validate(header)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Invalid submission header: " + violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        return header;
+    }
+
+    private Map<String, Object> validate(SubmissionItemCreateLite item) {
+        Map<String, Object> errors = new LinkedHashMap<>();
+        if (item == null) {
+            errors.put("item", "Line is null");
+            return errors;
+        }
+        for (ConstraintViolation<SubmissionItemCreateLite> violation : validator.validate(item)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private void addError(List<SubmissionIngestLineError> errors, int rejectedSoFar, int line, String message,
+                          Map<String, Object> details) {
+        // Counted in rejected either way; only the first few are echoed back
+        if (rejectedSoFar <= maxReportedErrors) {
+            errors.add(SubmissionIngestLineError.builder()
+                    .line(line)
+                    .message(message)
+                    .details(details)
+                    .build());
+        }
+    }
+
+    /**
+     * Non-blank lines of the body with their 1-based physical line numbers.
+     */
+    private static final class LineCursor {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        LineCursor(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        String next() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (!line.isBlank()) {
+                        return line;
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int lineNumber() {
+            return lineNumber;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.service;
+
+import com.example.repository.NumberBlockRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out unique submission numbers (hi/lo). Each node claims a block of numbers from the
+ * number_blocks counter and serves it from memory with a single atomic increment; only the
+ * call that exhausts a block goes to the database for the next one. Numbers are unique
+ * across nodes but not gap-free or ordered between them: a restart abandons the rest of the
+ * node's block.
+ */
+@Service
+public class SubmissionNumberAllocator {
+
+    private static final String COUNTER = "submission_number";
+
+    @Autowired
+    private NumberBlockRepository numberBlockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${submissions.number.block-size:1000}")
+    private int blockSize;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block current = new Block(0, 0);
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    public void init() {
+        // The claim commits on its own so the counter row is not locked for the caller's transaction
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next submission number, formatted for display (see {@link SubmissionNumbers}).
+     */
+    public String next() {
+        return SubmissionNumbers.format(nextValue());
+    }
+
+    long nextValue() {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            refill(block);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // Another thread may have refilled while this one waited
+            if (current != exhausted) {
+                return;
+            }
+            Long start = newTransaction.execute(tx -> numberBlockRepository.claimBlock(COUNTER, blockSize));
+            current = new Block(start, start + blockSize);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
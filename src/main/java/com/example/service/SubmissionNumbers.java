@@ -0,0 +1,52 @@
+package com.example.service;
+
+/**
+ * Renders allocated submission numbers as "SUB-" plus Crockford base32, e.g. 1000 -> SUB-0000Z8.
+ * The alphabet leaves out I, L, O and U, so a number read off an intake label or over the
+ * phone cannot be mistyped as a look-alike character. Padded to six digits (about a billion
+ * numbers); larger numbers simply get longer.
+ */
+public final class SubmissionNumbers {
+
+    static final String PREFIX = "SUB-";
+
+    private static final char[] SYMBOLS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int MIN_DIGITS = 6;
+
+    private SubmissionNumbers() {
+    }
+
+    public static String format(long number) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Submission number must not be negative: " + number);
+        }
+        char[] digits = new char[13];
+        int pos = digits.length;
+        long remaining = number;
+        do {
+            digits[--pos] = SYMBOLS[(int) (remaining & 31)];
+            remaining >>>= 5;
+        } while (remaining != 0);
+        while (digits.length - pos < MIN_DIGITS) {
+            digits[--pos] = '0';
+        }
+        return PREFIX + new String(digits, pos, digits.length - pos);
+    }
+
+    /**
+     * Normalizes a typed search term to the stored form: upper case, "SUB-" added when the
+     * term is just the code, and in the code the Crockford look-alikes O -> 0 and I, L -> 1.
+     * A term that is itself the start of "SUB-" is only upper-cased.
+     */
+    public static String normalizePrefix(String term) {
+        String upper = term.trim().toUpperCase();
+        if (PREFIX.startsWith(upper)) {
+            return upper;
+        }
+        String digits = upper.startsWith(PREFIX) ? upper.substring(PREFIX.length()) : upper;
+        return PREFIX + digits
+                .replace('O', '0')
+                .replace('I', '1')
+                .replace('L', '1');
+    }
+}
@@ -12,9 +12,11 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -39,16 +42,112 @@ public class SubmissionService {
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private SubmissionNumberAllocator submissionNumberAllocator;
+    
+    @Autowired
+    private CustomerService customerService;
+    
     @PersistenceContext
     private EntityManager entityManager;
     
+    // Write new submissions with plain JDBC (one batch for all items) rather than JPA cascade
+    @Value("${submissions.create.batched-insert:true}")
+    private boolean batchedInsert;
+    
     @Transactional
     public SubmissionCreateResponseLite createSubmission(SubmissionCreateRequestLite request) {
         System.out.println("DEBUG SubmissionService.createSubmission: Starting");
         System.out.println("DEBUG SubmissionService.createSubmission: Request customerId: " + request.getCustomerId());
         
+        verifyCustomerExists(request.getCustomerId());
+        
+        // Ids and timestamps are assigned up front so the whole graph can be written without
+        // the persistence context (the batched path) and the intake QR value can carry the id
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Create submission
+        Submission submission = newSubmission(request.getCustomerId(), request.getServiceLevel(), 
+                request.getNotesCustomer(), now);
+        
+        // Create items
+        List<SubmissionItem> items = new java.util.ArrayList<>(request.getItems().size());
+        for (int i = 0; i < request.getItems().size(); i++) {
+            items.add(newItem(submission, i + 1, request.getItems().get(i), now));
+        }
+        submission.setItems(items);
+        
+        if (batchedInsert) {
+            submission.setVersion(0L);
+            submissionRepository.insertSubmissionNative(submission);
+        } else {
+            submission = submissionRepository.save(submission);
+        }
+        
+        // Build response
+        List<SubmissionItemLite> itemLites = submission.getItems().stream()
+                .map(SubmissionItemLite::fromEntity)
+                .collect(Collectors.toList());
+        
+        return SubmissionCreateResponseLite.builder()
+                .submission(SubmissionLite.fromEntity(submission))
+                .intakeCode(SubmissionIntakeCodeDto.fromEntity(submission.getIntakeCode()))
+                .items(itemLites)
+                .build();
+    }
+    
+    /**
+     * New submission in SUBMITTED_NOT_YET_RECEIVED with its id, number, timestamps and
+     * intake code assigned. Items are left to the caller.
+     */
+    public Submission newSubmission(UUID customerId, Submission.ServiceLevel serviceLevel, String notesCustomer, 
+                                    LocalDateTime now) {
+        Submission submission = new Submission();
+        submission.setSubmissionId(UUID.randomUUID());
+        submission.setCreatedAt(now);
+        submission.setUpdatedAt(now);
+        submission.setCustomerId(customerId);
+        submission.setServiceLevel(serviceLevel != null ? serviceLevel : Submission.ServiceLevel.BRONZE);
+        // shippingAddressId removed - will use customer's shipping address when needed
+        submission.setNotesCustomer(notesCustomer);
+        submission.setStatus(Submission.SubmissionStatus.SUBMITTED_NOT_YET_RECEIVED);
+        
+        // Unique across nodes; also printed on the intake label
+        String submissionNumber = submissionNumberAllocator.next();
+        submission.setSubmissionNumber(submissionNumber);
+        
+        // Create intake code
+        SubmissionIntakeCode intakeCode = new SubmissionIntakeCode();
+        intakeCode.setIntakeCodeId(UUID.randomUUID());
+        intakeCode.setSubmission(submission);
+        intakeCode.setValue(submissionNumber);
+        intakeCode.setBarcodeFormat(SubmissionIntakeCode.BarcodeFormat.CODE_128);
+        intakeCode.setQrValue("https://api.yourdomain.com/submissions/" + submission.getSubmissionId());
+        submission.setIntakeCode(intakeCode);
+        return submission;
+    }
+    
+    static SubmissionItem newItem(Submission submission, int lineNumber, SubmissionItemCreateLite itemRequest, 
+                                  LocalDateTime now) {
+        SubmissionItem item = new SubmissionItem();
+        item.setItemId(UUID.randomUUID());
+        item.setCreatedAt(now);
+        item.setSubmission(submission);
+        item.setLineNumber(lineNumber);
+        item.setGame(itemRequest.getGame());
+        item.setFreeTextLine(itemRequest.getFreeTextLine());
+        item.setCustomerNotes(itemRequest.getCustomerNotes());
+        item.setRequestedPhotoSlots(itemRequest.getRequestedPhotoSlots() != null ? 
+                itemRequest.getRequestedPhotoSlots() : 2);
+        item.setFrontPhotoId(itemRequest.getFrontPhotoId());
+        item.setBackPhotoId(itemRequest.getBackPhotoId());
+        item.setEnrichmentStatus(SubmissionItem.EnrichmentStatus.PENDING);
+        return item;
+    }
+    
+    public void verifyCustomerExists(UUID customerId) {
         // Verify customer exists using native query to avoid UUID conversion issues
-        String customerIdString = request.getCustomerId().toString();
+        String customerIdString = customerId.toString();
         System.out.println("DEBUG SubmissionService: Looking for customer with ID string: '" + customerIdString + "'");
         
         try {
@@ -92,84 +191,194 @@ public class SubmissionService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 "Error checking customer: " + e.getMessage());
         }
-        
-        // Create submission
-        Submission submission = new Submission();
-        submission.setCustomerId(request.getCustomerId());
-        submission.setServiceLevel(request.getServiceLevel() != null ? request.getServiceLevel() : Submission.ServiceLevel.BRONZE);
-        // shippingAddressId removed - will use customer's shipping address when needed
-        submission.setNotesCustomer(request.getNotesCustomer());
-        submission.setStatus(Submission.SubmissionStatus.SUBMITTED_NOT_YET_RECEIVED);
-        
-        // Generate submission number
-        String submissionNumber = "SUB-" + System.currentTimeMillis();
-        submission.setSubmissionNumber(submissionNumber);
-        
-        // Create items
-        List<SubmissionItem> items = new java.util.ArrayList<>();
-        for (int i = 0; i < request.getItems().size(); i++) {
-            SubmissionItemCreateLite itemRequest = request.getItems().get(i);
-            SubmissionItem item = new SubmissionItem();
-            item.setSubmission(submission);
-            item.setLineNumber(i + 1);
-            item.setGame(itemRequest.getGame());
-            item.setFreeTextLine(itemRequest.getFreeTextLine());
-            item.setCustomerNotes(itemRequest.getCustomerNotes());
-            item.setRequestedPhotoSlots(itemRequest.getRequestedPhotoSlots() != null ? 
-                    itemRequest.getRequestedPhotoSlots() : 2);
-            item.setFrontPhotoId(itemRequest.getFrontPhotoId());
-            item.setBackPhotoId(itemRequest.getBackPhotoId());
-            item.setEnrichmentStatus(SubmissionItem.EnrichmentStatus.PENDING);
-            items.add(item);
+    }
+    
+    @Transactional(readOnly = true)
+    public long getSubmissionVersion(UUID submissionId) {
+        return submissionRepository.findVersionBySubmissionId(submissionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
+    }
+    
+    /**
+     * One statement whatever is expanded: the intake code, and the items when asked for,
+     * are fetch-joined. An expanded customer usually comes from the customer cache.
+     */
+    @Transactional(readOnly = true)
+    public SubmissionLite getSubmissionById(UUID submissionId, Set<SubmissionExpand> expand) {
+        Submission submission = (expand.contains(SubmissionExpand.ITEMS)
+                ? submissionRepository.findWithIntakeCodeAndItemsBySubmissionId(submissionId)
+                : submissionRepository.findWithIntakeCodeBySubmissionId(submissionId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
+        CustomerResponse customer = expand.contains(SubmissionExpand.CUSTOMER) ? expandedCustomer(submission.getCustomerId()) : null;
+        return toLite(submission, expand, customer);
+    }
+    
+    /**
+     * Submissions with their intake codes in one statement. Expanded items are loaded
+     * through Hibernate batch fetching (hibernate.default_batch_fetch_size), one statement
+     * per batch of submissions; the customer is the same for every row and resolved once.
+     */
+    @Transactional(readOnly = true)
+    public List<SubmissionLite> getSubmissionsByCustomerId(UUID customerId, Set<SubmissionExpand> expand) {
+        List<Submission> submissions = submissionRepository.findWithIntakeCodeByCustomerId(customerId);
+        CustomerResponse customer = (expand.contains(SubmissionExpand.CUSTOMER) && !submissions.isEmpty())
+                ? expandedCustomer(customerId) : null;
+        return submissions.stream()
+                .map(submission -> toLite(submission, expand, customer))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * One keyset page of submissions, newest first. {@code q} is a submission number prefix.
+     * Page sizes stay within hibernate.default_batch_fetch_size so expanded items cost one
+     * statement per page; an expanded customer is looked up once per distinct customer.
+     */
+    @Transactional(readOnly = true)
+    public SubmissionListResponse listSubmissions(UUID customerId, Submission.SubmissionStatus status,
+                                                  Submission.ServiceLevel serviceLevel, LocalDateTime createdFrom,
+                                                  LocalDateTime createdTo, String q, Integer limit, String cursor,
+                                                  Set<SubmissionExpand> expand) {
+        int pageSize = (limit != null && limit > 0 && limit <= 100) ? limit : 25;
+        LocalDateTime afterCreatedAt = null;
+        UUID afterSubmissionId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterSubmissionId = UUID.fromString(parts[1]);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
         }
-        submission.setItems(items);
+        String numberPrefix = (q != null && !q.isBlank()) ? SubmissionNumbers.normalizePrefix(q) : null;
         
-        // Create intake code
-        SubmissionIntakeCode intakeCode = new SubmissionIntakeCode();
-        intakeCode.setSubmission(submission);
-        intakeCode.setValue(submissionNumber);
-        intakeCode.setBarcodeFormat(SubmissionIntakeCode.BarcodeFormat.CODE_128);
-        intakeCode.setQrValue("https://api.yourdomain.com/submissions/" + submission.getSubmissionId());
-        submission.setIntakeCode(intakeCode);
+        Slice<Submission> page = submissionRepository.searchSubmissions(customerId, status, serviceLevel,
+                createdFrom, createdTo, numberPrefix, afterCreatedAt, afterSubmissionId, pageSize);
         
-        submission = submissionRepository.save(submission);
-        
-        // Build response
-        List<SubmissionItemLite> itemLites = submission.getItems().stream()
-                .map(SubmissionItemLite::fromEntity)
+        java.util.Map<UUID, CustomerResponse> customers = new java.util.HashMap<>();
+        List<SubmissionLite> items = page.getContent().stream()
+                .map(submission -> toLite(submission, expand, expand.contains(SubmissionExpand.CUSTOMER)
+                        ? customers.computeIfAbsent(submission.getCustomerId(), this::expandedCustomer)
+                        : null))
                 .collect(Collectors.toList());
         
-        return SubmissionCreateResponseLite.builder()
-                .submission(SubmissionLite.fromEntity(submission))
-                .intakeCode(SubmissionIntakeCodeDto.fromEntity(submission.getIntakeCode()))
-                .items(itemLites)
+        String nextCursor = null;
+        if (page.hasNext()) {
+            List<Submission> content = page.getContent();
+            Submission last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt().toString(), last.getSubmissionId().toString());
+        }
+        return SubmissionListResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
                 .build();
     }
     
-    public SubmissionLite getSubmissionById(UUID submissionId) {
-        Submission submission = submissionRepository.findById(submissionId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
-        return SubmissionLite.fromEntity(submission);
+    private SubmissionLite toLite(Submission submission, Set<SubmissionExpand> expand, CustomerResponse customer) {
+        SubmissionLite lite = SubmissionLite.fromEntity(submission);
+        if (expand.contains(SubmissionExpand.ITEMS)) {
+            lite.setItems(submission.getItems().stream()
+                    .map(SubmissionItemLite::fromEntity)
+                    .collect(Collectors.toList()));
+        }
+        if (expand.contains(SubmissionExpand.INTAKE_CODE) && submission.getIntakeCode() != null) {
+            lite.setIntakeCode(SubmissionIntakeCodeDto.fromEntity(submission.getIntakeCode()));
+        }
+        lite.setCustomer(customer);
+        return lite;
     }
     
-    public List<SubmissionLite> getSubmissionsByCustomerId(UUID customerId) {
-        List<Submission> submissions = submissionRepository.findByCustomerId(customerId);
-        return submissions.stream()
-                .map(SubmissionLite::fromEntity)
-                .collect(Collectors.toList());
+    private CustomerResponse expandedCustomer(UUID customerId) {
+        try {
+            return customerService.getCustomerById(customerId);
+        } catch (ResponseStatusException e) {
+            // Deleted since the submission was made; the submission itself is still served
+            return null;
+        }
     }
     
+    @Transactional(readOnly = true)
     public List<SubmissionItemLite> getItemsBySubmissionId(UUID submissionId) {
-        // Verify submission exists
-        submissionRepository.findById(submissionId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
-        
         List<SubmissionItem> items = submissionItemRepository.findBySubmission_SubmissionId(submissionId);
+        // Every submission has at least one item, so only an empty result needs the existence check
+        if (items.isEmpty() && !submissionRepository.existsById(submissionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found");
+        }
         return items.stream()
                 .map(SubmissionItemLite::fromEntity)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * One keyset page of a submission's items in line number order, read as DTOs.
+     */
+    @Transactional(readOnly = true)
+    public SubmissionItemListResponse listItemsBySubmissionId(UUID submissionId, Integer limit, String cursor) {
+        int pageSize = itemPageSize(limit);
+        Integer afterLineNumber = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            afterLineNumber = parseLineNumber(CursorCodec.decode(cursor, 1)[0]);
+        }
+        Slice<SubmissionItemLite> page = submissionItemRepository.findItemsBySubmissionNative(submissionId, afterLineNumber, pageSize);
+        if (afterLineNumber == null && page.getContent().isEmpty() && !submissionRepository.existsById(submissionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found");
+        }
+        String nextCursor = null;
+        if (page.hasNext()) {
+            List<SubmissionItemLite> content = page.getContent();
+            nextCursor = CursorCodec.encode(String.valueOf(content.get(content.size() - 1).getLineNumber()));
+        }
+        return SubmissionItemListResponse.builder()
+                .items(page.getContent())
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    /**
+     * One keyset page of the items of every submission in {@code status}, oldest submission
+     * first and in line number order within a submission, read as DTOs.
+     */
+    @Transactional(readOnly = true)
+    public SubmissionItemListResponse listItemsBySubmissionStatus(Submission.SubmissionStatus status, Integer limit, String cursor) {
+        int pageSize = itemPageSize(limit);
+        UUID afterSubmissionId = null;
+        Integer afterLineNumber = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                afterSubmissionId = UUID.fromString(parts[0]);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            afterLineNumber = parseLineNumber(parts[1]);
+        }
+        Slice<SubmissionItemLite> page = submissionItemRepository.findItemsByStatusNative(
+                status, afterSubmissionId, afterLineNumber, pageSize);
+        String nextCursor = null;
+        if (page.hasNext()) {
+            List<SubmissionItemLite> content = page.getContent();
+            SubmissionItemLite last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getSubmissionId().toString(), String.valueOf(last.getLineNumber()));
+        }
+        return SubmissionItemListResponse.builder()
+                .items(page.getContent())
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    private static int itemPageSize(Integer limit) {
+        return (limit != null && limit > 0 && limit <= 1000) ? limit : 200;
+    }
+    
+    private static Integer parseLineNumber(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public List<SubmissionItemLite> getItemsBySubmissionStatus(Submission.SubmissionStatus status) {
         List<SubmissionItem> items = submissionItemRepository.findBySubmissionStatus(status);
         return items.stream()
@@ -0,0 +1,97 @@
+-- Baseline schema, matching the JPA entities.
+-- Written to be re-runnable so it also applies cleanly to databases that were
+-- previously managed by spring.jpa.hibernate.ddl-auto (see spring.flyway.baseline-version).
+
+CREATE TABLE IF NOT EXISTS customers (
+    customer_id        UUID           NOT NULL PRIMARY KEY,
+    email              VARCHAR(255)   NOT NULL,
+    phone              VARCHAR(50),
+    full_name          VARCHAR(200)   NOT NULL,
+    billing_line1      VARCHAR(200),
+    billing_line2      VARCHAR(200),
+    billing_city       VARCHAR(120),
+    billing_region     VARCHAR(120),
+    billing_postcode   VARCHAR(20),
+    billing_country    VARCHAR(2),
+    shipping_line1     VARCHAR(200),
+    shipping_line2     VARCHAR(200),
+    shipping_city      VARCHAR(120),
+    shipping_region    VARCHAR(120),
+    shipping_postcode  VARCHAR(20),
+    shipping_country   VARCHAR(2),
+    marketing_opt_in   BOOLEAN        NOT NULL,
+    status             VARCHAR(20)    NOT NULL,
+    created_at         TIMESTAMP(6)   NOT NULL,
+    updated_at         TIMESTAMP(6)   NOT NULL,
+    deleted_at         TIMESTAMP(6),
+    version            BIGINT         DEFAULT 0 NOT NULL,
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_customers_email ON customers (email);
+CREATE INDEX IF NOT EXISTS idx_customers_status ON customers (status);
+CREATE INDEX IF NOT EXISTS idx_customers_created_at ON customers (created_at);
+CREATE INDEX IF NOT EXISTS idx_customers_updated_at ON customers (updated_at, customer_id);
+
+CREATE TABLE IF NOT EXISTS submissions (
+    submission_id        UUID           NOT NULL PRIMARY KEY,
+    customer_id          UUID           NOT NULL,
+    submission_number    VARCHAR(50),
+    service_level        VARCHAR(20)    NOT NULL,
+    shipping_address_id  UUID,
+    notes_customer       VARCHAR(2000),
+    status               VARCHAR(50)    NOT NULL,
+    created_at           TIMESTAMP(6)   NOT NULL,
+    updated_at           TIMESTAMP(6)   NOT NULL,
+    version              BIGINT         DEFAULT 0 NOT NULL,
+    CONSTRAINT uk_submissions_submission_number UNIQUE (submission_number)
+);
+
+ALTER TABLE submissions ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_submissions_customer_id ON submissions (customer_id);
+CREATE INDEX IF NOT EXISTS idx_submissions_status ON submissions (status);
+CREATE INDEX IF NOT EXISTS idx_submissions_submission_number ON submissions (submission_number);
+
+CREATE TABLE IF NOT EXISTS submission_items (
+    item_id                UUID           NOT NULL PRIMARY KEY,
+    submission_id          UUID           NOT NULL REFERENCES submissions (submission_id),
+    line_number            INTEGER        NOT NULL,
+    game                   VARCHAR(20)    NOT NULL,
+    free_text_line         VARCHAR(300)   NOT NULL,
+    customer_notes         VARCHAR(1000),
+    requested_photo_slots  INTEGER        NOT NULL,
+    front_photo_id         VARCHAR(255),
+    back_photo_id          VARCHAR(255),
+    enrichment_status      VARCHAR(20)    NOT NULL,
+    enrichment_confidence  FLOAT(53),
+    matched_catalog_id     VARCHAR(255),
+    created_at             TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_submission_items_submission_id ON submission_items (submission_id);
+CREATE INDEX IF NOT EXISTS idx_submission_items_enrichment_status ON submission_items (enrichment_status);
+
+CREATE TABLE IF NOT EXISTS submission_intake_codes (
+    intake_code_id  UUID           NOT NULL PRIMARY KEY,
+    submission_id   UUID           NOT NULL UNIQUE REFERENCES submissions (submission_id),
+    value           VARCHAR(100)   NOT NULL,
+    barcode_format  VARCHAR(20)    NOT NULL,
+    qr_value        VARCHAR(500)   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key    VARCHAR(300)   NOT NULL PRIMARY KEY,
+    request_hash       VARCHAR(64)    NOT NULL,
+    state              VARCHAR(20)    NOT NULL,
+    response_status    INTEGER,
+    response_location  VARCHAR(500),
+    response_body      TEXT,
+    lease_expires_at   TIMESTAMP(6),
+    created_at         TIMESTAMP(6)   NOT NULL,
+    expires_at         TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,24 @@
+-- Indexes for the hot read paths, built without blocking writes.
+-- CONCURRENTLY cannot run inside a transaction; see the matching .conf file.
+-- If a build fails it leaves an INVALID index behind, which SchemaIndexVerifier reports;
+-- drop it and rerun the migration.
+
+-- findByEmailNative / email filter: LOWER(email) = LOWER(?)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_email_lower
+    ON customers (LOWER(email));
+
+-- Keyset listing: every list query excludes deleted rows and orders by one of these columns
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_active_created_at
+    ON customers (created_at, customer_id) WHERE status <> 'DELETED';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_active_full_name
+    ON customers (full_name, customer_id) WHERE status <> 'DELETED';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_active_updated_at
+    ON customers (updated_at, customer_id) WHERE status <> 'DELETED';
+
+-- Listing filtered by status
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_status_created_at
+    ON customers (status, created_at, customer_id);
+
+-- A customer's submissions, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_submissions_customer_created_at
+    ON submissions (customer_id, created_at);
@@ -0,0 +1,10 @@
+-- Hi/lo counter rows: each node claims a range of numbers at a time (NumberBlockRepository)
+-- and hands them out from memory.
+CREATE TABLE IF NOT EXISTS number_blocks (
+    name       VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT      NOT NULL
+);
+
+INSERT INTO number_blocks (name, next_value)
+VALUES ('submission_number', 1)
+ON CONFLICT (name) DO NOTHING;
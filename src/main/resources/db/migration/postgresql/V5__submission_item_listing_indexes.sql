@@ -0,0 +1,9 @@
+-- Keyset item listings (see V3 for why these are built CONCURRENTLY).
+
+-- Items by submission status: submissions in the status in (created_at, submission_id) order...
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_submissions_status_created_at
+    ON submissions (status, created_at, submission_id);
+
+-- ...then each submission's items in line order; also serves a single submission's item pages
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_submission_items_submission_line
+    ON submission_items (submission_id, line_number);
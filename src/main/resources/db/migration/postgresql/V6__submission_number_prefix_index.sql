@@ -0,0 +1,6 @@
+-- Submission number prefix search (GET /v1/submissions?q=): submission_number LIKE 'SUB-00A%'.
+-- The unique constraint's index follows the database collation, which LIKE can only use
+-- under the C collation; text_pattern_ops compares byte-wise, so the prefix becomes a range scan.
+-- SQL Server seeks on the existing unique index for LIKE 'prefix%', so it needs no counterpart.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_submissions_number_pattern
+    ON submissions (submission_number text_pattern_ops);
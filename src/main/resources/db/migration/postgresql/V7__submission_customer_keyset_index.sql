@@ -0,0 +1,8 @@
+-- Customer submission pages (GET /v1/submissions?customerId=, GET /v1/submissions/customer/{id})
+-- page in (created_at, submission_id) order. With submission_id as the trailing column the
+-- keyset bound is an index condition and ties on created_at need no heap visit; this index
+-- replaces V3's (customer_id, created_at), which it covers as a prefix.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_submissions_customer_created_at_id
+    ON submissions (customer_id, created_at, submission_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_submissions_customer_created_at;
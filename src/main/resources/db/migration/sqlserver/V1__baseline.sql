@@ -0,0 +1,127 @@
+-- Baseline schema, matching the JPA entities.
+-- Written to be re-runnable so it also applies cleanly to databases that were
+-- previously created by hand or by Hibernate (see spring.flyway.baseline-version).
+
+IF OBJECT_ID(N'customers', N'U') IS NULL
+CREATE TABLE customers (
+    customer_id        UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+    email              VARCHAR(255)     NOT NULL,
+    phone              VARCHAR(50),
+    full_name          VARCHAR(200)     NOT NULL,
+    billing_line1      VARCHAR(200),
+    billing_line2      VARCHAR(200),
+    billing_city       VARCHAR(120),
+    billing_region     VARCHAR(120),
+    billing_postcode   VARCHAR(20),
+    billing_country    VARCHAR(2),
+    shipping_line1     VARCHAR(200),
+    shipping_line2     VARCHAR(200),
+    shipping_city      VARCHAR(120),
+    shipping_region    VARCHAR(120),
+    shipping_postcode  VARCHAR(20),
+    shipping_country   VARCHAR(2),
+    marketing_opt_in   BIT              NOT NULL,
+    status             VARCHAR(20)      NOT NULL,
+    created_at         DATETIME2(6)     NOT NULL,
+    updated_at         DATETIME2(6)     NOT NULL,
+    deleted_at         DATETIME2(6),
+    version            BIGINT           NOT NULL CONSTRAINT df_customers_version DEFAULT 0,
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
+GO
+
+IF COL_LENGTH(N'customers', N'version') IS NULL
+ALTER TABLE customers ADD version BIGINT NOT NULL CONSTRAINT df_customers_version DEFAULT 0;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_email' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_email ON customers (email);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_status' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_status ON customers (status);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_created_at' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_created_at ON customers (created_at);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_updated_at' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_updated_at ON customers (updated_at, customer_id);
+GO
+
+IF OBJECT_ID(N'submissions', N'U') IS NULL
+CREATE TABLE submissions (
+    submission_id        UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+    customer_id          UNIQUEIDENTIFIER NOT NULL,
+    submission_number    VARCHAR(50),
+    service_level        VARCHAR(20)      NOT NULL,
+    shipping_address_id  UNIQUEIDENTIFIER,
+    notes_customer       VARCHAR(2000),
+    status               VARCHAR(50)      NOT NULL,
+    created_at           DATETIME2(6)     NOT NULL,
+    updated_at           DATETIME2(6)     NOT NULL,
+    version              BIGINT           NOT NULL CONSTRAINT df_submissions_version DEFAULT 0
+);
+GO
+
+IF COL_LENGTH(N'submissions', N'version') IS NULL
+ALTER TABLE submissions ADD version BIGINT NOT NULL CONSTRAINT df_submissions_version DEFAULT 0;
+GO
+
+-- Unique but nullable: SQL Server UNIQUE constraints allow only one NULL, so use a filtered index
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'uk_submissions_submission_number' AND object_id = OBJECT_ID(N'submissions'))
+CREATE UNIQUE INDEX uk_submissions_submission_number ON submissions (submission_number) WHERE submission_number IS NOT NULL;
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_customer_id' AND object_id = OBJECT_ID(N'submissions'))
+CREATE INDEX idx_submissions_customer_id ON submissions (customer_id);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_status' AND object_id = OBJECT_ID(N'submissions'))
+CREATE INDEX idx_submissions_status ON submissions (status);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_submission_number' AND object_id = OBJECT_ID(N'submissions'))
+CREATE INDEX idx_submissions_submission_number ON submissions (submission_number);
+GO
+
+IF OBJECT_ID(N'submission_items', N'U') IS NULL
+CREATE TABLE submission_items (
+    item_id                UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+    submission_id          UNIQUEIDENTIFIER NOT NULL REFERENCES submissions (submission_id),
+    line_number            INT              NOT NULL,
+    game                   VARCHAR(20)      NOT NULL,
+    free_text_line         VARCHAR(300)     NOT NULL,
+    customer_notes         VARCHAR(1000),
+    requested_photo_slots  INT              NOT NULL,
+    front_photo_id         VARCHAR(255),
+    back_photo_id          VARCHAR(255),
+    enrichment_status      VARCHAR(20)      NOT NULL,
+    enrichment_confidence  FLOAT(53),
+    matched_catalog_id     VARCHAR(255),
+    created_at             DATETIME2(6)     NOT NULL
+);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submission_items_submission_id' AND object_id = OBJECT_ID(N'submission_items'))
+CREATE INDEX idx_submission_items_submission_id ON submission_items (submission_id);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submission_items_enrichment_status' AND object_id = OBJECT_ID(N'submission_items'))
+CREATE INDEX idx_submission_items_enrichment_status ON submission_items (enrichment_status);
+GO
+
+IF OBJECT_ID(N'submission_intake_codes', N'U') IS NULL
+CREATE TABLE submission_intake_codes (
+    intake_code_id  UNIQUEIDENTIFIER NOT NULL PRIMARY KEY,
+    submission_id   UNIQUEIDENTIFIER NOT NULL UNIQUE REFERENCES submissions (submission_id),
+    value           VARCHAR(100)     NOT NULL,
+    barcode_format  VARCHAR(20)      NOT NULL,
+    qr_value        VARCHAR(500)     NOT NULL
+);
+GO
+
+IF OBJECT_ID(N'idempotency_keys', N'U') IS NULL
+CREATE TABLE idempotency_keys (
+    idempotency_key    VARCHAR(300)     NOT NULL PRIMARY KEY,
+    request_hash       VARCHAR(64)      NOT NULL,
+    state              VARCHAR(20)      NOT NULL,
+    response_status    INT,
+    response_location  VARCHAR(500),
+    response_body      VARCHAR(MAX),
+    lease_expires_at   DATETIME2(6),
+    created_at         DATETIME2(6)     NOT NULL,
+    expires_at         DATETIME2(6)     NOT NULL
+);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_idempotency_keys_expires_at' AND object_id = OBJECT_ID(N'idempotency_keys'))
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+GO
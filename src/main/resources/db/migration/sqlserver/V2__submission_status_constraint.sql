@@ -0,0 +1,24 @@
+-- Submission status CHECK constraint covering the display-value statuses
+-- plus the legacy values still present in older rows
+
+IF OBJECT_ID(N'submission_status_check', N'C') IS NOT NULL
+ALTER TABLE submissions DROP CONSTRAINT submission_status_check;
+GO
+
+ALTER TABLE submissions ADD CONSTRAINT submission_status_check
+    CHECK (status IN (
+        'submitted-not yet received',
+        'submitted - received',
+        'grading started',
+        'graded',
+        'qa check',
+        'finalised',
+        'posted',
+        -- Legacy values for backward compatibility during migration
+        'DRAFT',
+        'SUBMITTED',
+        'PROCESSING',
+        'COMPLETED',
+        'CANCELLED'
+    ));
+GO
@@ -0,0 +1,34 @@
+-- Indexes for the hot read paths, built ONLINE so the tables stay writable
+-- (requires Azure SQL or an edition with online index operations).
+
+-- SQL Server has no expression indexes: index a persisted computed column instead.
+-- The optimizer matches LOWER(email) in queries to it, and Hibernate ignores the extra column.
+IF COL_LENGTH(N'customers', N'email_lower') IS NULL
+ALTER TABLE customers ADD email_lower AS LOWER(email) PERSISTED;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_email_lower' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_email_lower ON customers (email_lower) WITH (ONLINE = ON);
+GO
+
+-- Keyset listing: every list query excludes deleted rows and orders by one of these columns
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_active_created_at' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_active_created_at ON customers (created_at, customer_id)
+    WHERE status <> 'DELETED' WITH (ONLINE = ON);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_active_full_name' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_active_full_name ON customers (full_name, customer_id)
+    WHERE status <> 'DELETED' WITH (ONLINE = ON);
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_active_updated_at' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_active_updated_at ON customers (updated_at, customer_id)
+    WHERE status <> 'DELETED' WITH (ONLINE = ON);
+GO
+
+-- Listing filtered by status
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_customers_status_created_at' AND object_id = OBJECT_ID(N'customers'))
+CREATE INDEX idx_customers_status_created_at ON customers (status, created_at, customer_id) WITH (ONLINE = ON);
+GO
+
+-- A customer's submissions, newest first
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_customer_created_at' AND object_id = OBJECT_ID(N'submissions'))
+CREATE INDEX idx_submissions_customer_created_at ON submissions (customer_id, created_at) WITH (ONLINE = ON);
+GO
@@ -0,0 +1,12 @@
+-- Hi/lo counter rows: each node claims a range of numbers at a time (NumberBlockRepository)
+-- and hands them out from memory.
+IF OBJECT_ID(N'number_blocks', N'U') IS NULL
+CREATE TABLE number_blocks (
+    name       VARCHAR(50) NOT NULL PRIMARY KEY,
+    next_value BIGINT      NOT NULL
+);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM number_blocks WHERE name = 'submission_number')
+INSERT INTO number_blocks (name, next_value) VALUES ('submission_number', 1);
+GO
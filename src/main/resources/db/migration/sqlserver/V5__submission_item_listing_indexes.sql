@@ -0,0 +1,11 @@
+-- Keyset item listings, built ONLINE (see V3).
+
+-- Items by submission status: submissions in the status in (created_at, submission_id) order...
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_status_created_at' AND object_id = OBJECT_ID(N'submissions'))
+CREATE INDEX idx_submissions_status_created_at ON submissions (status, created_at, submission_id) WITH (ONLINE = ON);
+GO
+
+-- ...then each submission's items in line order; also serves a single submission's item pages
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submission_items_submission_line' AND object_id = OBJECT_ID(N'submission_items'))
+CREATE INDEX idx_submission_items_submission_line ON submission_items (submission_id, line_number) WITH (ONLINE = ON);
+GO
@@ -0,0 +1,10 @@
+-- Customer submission pages in (created_at, submission_id) order, built ONLINE (see V3).
+-- Replaces V3's (customer_id, created_at), which it covers as a prefix; dropping a
+-- nonclustered index is a metadata change (ONLINE applies only to clustered ones).
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_customer_created_at_id' AND object_id = OBJECT_ID(N'submissions'))
+CREATE INDEX idx_submissions_customer_created_at_id ON submissions (customer_id, created_at, submission_id) WITH (ONLINE = ON);
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_submissions_customer_created_at' AND object_id = OBJECT_ID(N'submissions'))
+DROP INDEX idx_submissions_customer_created_at ON submissions;
+GO
@@ -0,0 +1,80 @@
+package com.example.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Counts JDBC statement executions through the application DataSource.
+ *
+ * Every execute/executeQuery/executeUpdate counts as one statement; an executeBatch
+ * counts as one statement and one batch, however many rows it carries. Only statements
+ * on the thread that called {@link #reset()} count, which is the thread MockMvc runs the
+ * request on, so background work (the startup index and filter builds, scheduled
+ * refreshes) never lands in a budget. {@link #resetAllThreads()} counts every thread, for
+ * a request that hands its work to another one (streamed exports); wait for the
+ * background work to finish before using it. PostgreSQL COPY goes through the driver's
+ * copy API, not a Statement, and is not counted.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private final List<String> executed = new ArrayList<>();
+    private int statements;
+    private int batches;
+    private Thread owner;
+    private boolean allThreads;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!allThreads && Thread.currentThread() != owner) {
+            return;
+        }
+        statements++;
+        if (execInfo.isBatch()) {
+            batches++;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        executed.add((execInfo.isBatch() ? "[batch x" + execInfo.getBatchSize() + "] " : "") + sql);
+    }
+
+    public synchronized void reset() {
+        executed.clear();
+        statements = 0;
+        batches = 0;
+        owner = Thread.currentThread();
+        allThreads = false;
+    }
+
+    public synchronized void resetAllThreads() {
+        reset();
+        allThreads = true;
+    }
+
+    public synchronized int statements() {
+        return statements;
+    }
+
+    public synchronized int batches() {
+        return batches;
+    }
+
+    /**
+     * Fails when more statements or batches ran since the last reset than the budget allows,
+     * listing what ran so the new query is easy to spot.
+     */
+    public synchronized void assertWithinBudget(String operation, int maxStatements, int maxBatches) {
+        if (statements > maxStatements || batches > maxBatches) {
+            throw new AssertionError(operation + " issued " + statements + " statement(s) and " + batches
+                    + " batch(es); budget is " + maxStatements + " and " + maxBatches + ":\n  "
+                    + String.join("\n  ", executed));
+        }
+    }
+}
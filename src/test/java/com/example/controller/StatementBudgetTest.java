@@ -0,0 +1,330 @@
+package com.example.controller;
+
+import com.example.config.SqlStatementCounter;
+import com.example.config.StatementCountingConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per controller operation: the most statements and JDBC batches one
+ * call may issue. A new query on a hot path (an N+1, a probe before a write) fails here.
+ * Lower a budget when an endpoint gets cheaper; raise one only with a reason next to it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("dev")
+@Import(StatementCountingConfig.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:postgresql://localhost:5432/hags_customer",
+    "spring.datasource.username=hags_user",
+    "spring.datasource.password=hags_password",
+    "spring.jpa.hibernate.ddl-auto=update"
+})
+public class StatementBudgetTest {
+
+    private static final int SUBMISSION_ITEMS = 3;
+
+    // Threads started on ApplicationReadyEvent by CustomerSearchIndex and EmailBloomFilter
+    private static final Set<String> STARTUP_JOBS = Set.of("customer-search-index-build", "email-filter-seed");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String email;
+    private UUID customerId;
+
+    @BeforeEach
+    public void createCustomer() throws Exception {
+        email = "budget-" + UUID.randomUUID() + "@example.com";
+        JsonNode customer = json(mockMvc.perform(post("/v1/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerBody(email))))
+                .andExpect(status().isCreated())
+                .andReturn());
+        customerId = UUID.fromString(customer.get("customerId").asText());
+    }
+
+    @AfterEach
+    public void deleteTestData() {
+        // The database is shared with the other tests, which expect the seeded customer among the newest rows
+        String submissions = "SELECT s.submission_id FROM submissions s JOIN customers c ON c.customer_id = s.customer_id"
+                + " WHERE c.email LIKE 'budget-%@example.com'";
+        jdbcTemplate.update("DELETE FROM submission_items WHERE submission_id IN (" + submissions + ")");
+        jdbcTemplate.update("DELETE FROM submission_intake_codes WHERE submission_id IN (" + submissions + ")");
+        jdbcTemplate.update("DELETE FROM submissions WHERE submission_id IN (" + submissions + ")");
+        jdbcTemplate.update("DELETE FROM customers WHERE email LIKE 'budget-%@example.com'");
+    }
+
+    // Customers
+
+    @Test
+    public void createCustomer_insertsOnce() throws Exception {
+        // Insert, plus the duplicate probe when the email filter reports a (false) positive
+        assertBudget("createCustomer", 2, 1, post("/v1/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customerBody("budget-" + UUID.randomUUID() + "@example.com"))),
+                status().isCreated());
+    }
+
+    @Test
+    public void readCustomer_singleQuery() throws Exception {
+        assertBudget("getCustomer", 1, 0, get("/v1/customers/" + customerId), status().isOk());
+        assertBudget("lookupCustomerByEmail", 1, 0, get("/v1/customers/lookup").param("email", email), status().isOk());
+        assertBudget("batchGetCustomers", 1, 0, post("/v1/customers:batchGet")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerIds\":[\"" + customerId + "\",\"" + UUID.randomUUID() + "\"]}"),
+                status().isOk());
+    }
+
+    @Test
+    public void searchCustomers_singleQuery() throws Exception {
+        assertBudget("listCustomers", 1, 0, get("/v1/customers").param("limit", "50"), status().isOk());
+        assertBudget("listCustomers", 1, 0, get("/v1/customers").param("email", email), status().isOk());
+        // count=exact adds exactly the COUNT(*)
+        assertBudget("listCustomers", 2, 0, get("/v1/customers").param("q", "Budget").param("count", "exact"), status().isOk());
+        assertBudget("typeaheadCustomers", 1, 0, get("/v1/customers/search").param("q", "Budget"), status().isOk());
+        assertBudget("listCustomerChanges", 1, 0, get("/v1/customers/changes").param("limit", "100"), status().isOk());
+    }
+
+    @Test
+    public void exportCustomers_singleCursor() throws Exception {
+        // The export streams on an async thread, so count every thread once the startup jobs are done
+        awaitStartupJobs();
+        counter.resetAllThreads();
+        MvcResult started = mockMvc.perform(get("/v1/customers/export").param("email", email))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        counter.assertWithinBudget("exportCustomers", 1, 0);
+    }
+
+    @Test
+    public void writeCustomer_singleStatement() throws Exception {
+        assertBudget("updateCustomer", 1, 0, patch("/v1/customers/" + customerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"phone\":\"+44 7700 900123\"}"),
+                status().isOk());
+        assertBudget("deleteCustomer", 1, 0, delete("/v1/customers/" + customerId), status().isNoContent());
+        assertBudget("restoreCustomer", 1, 0, post("/v1/customers/" + customerId + "/restore"), status().isOk());
+    }
+
+    @Test
+    public void batchCreateCustomers_onePassPerChunk() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            rows.add(customerBody("budget-" + UUID.randomUUID() + "@example.com"));
+            ndjson.append(objectMapper.writeValueAsString(customerBody("budget-" + UUID.randomUUID() + "@example.com"))).append('\n');
+        }
+        // One existence query for the chunk (skipped when the email filter rules every row out)
+        // and one insert; on PostgreSQL the insert is a COPY, which is not a counted statement
+        assertBudget("batchCreateCustomers", 2, 1, post("/v1/customers:batchCreate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rows)),
+                status().isOk());
+        assertBudget("batchCreateCustomersNdjson", 2, 1, post("/v1/customers:batchCreate")
+                .contentType("application/x-ndjson")
+                .content(ndjson.toString()),
+                status().isOk());
+    }
+
+    // Submissions
+
+    @Test
+    public void createSubmission_batchedInserts() throws Exception {
+        // Leaves a submission number block in memory; claiming the next block is one extra statement per block
+        createSubmission();
+        // Customer check, submission insert, one batch for all items, intake code insert
+        assertBudget("createSubmission", 4, 1, post("/v1/submissions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(submissionBody(customerId))),
+                status().isCreated());
+    }
+
+    @Test
+    public void ingestSubmission_batchedInserts() throws Exception {
+        createSubmission();
+        StringBuilder body = new StringBuilder(objectMapper.writeValueAsString(
+                Map.of("customerId", customerId.toString(), "serviceLevel", "BRONZE")));
+        for (int i = 0; i < SUBMISSION_ITEMS; i++) {
+            body.append('\n').append(objectMapper.writeValueAsString(
+                    Map.of("game", "POKEMON", "freeTextLine", "Ingest test card " + i, "requestedPhotoSlots", 2)));
+        }
+        // Customer check, submission insert, intake code insert, one item batch (fewer than batch-size items)
+        assertBudget("ingestSubmission", 4, 1, post("/v1/submissions")
+                .contentType("application/x-ndjson")
+                .content(body.toString()),
+                status().isCreated());
+        // Atomic with a bad first line: nothing after it is written, only read for error reporting
+        String header = body.substring(0, body.indexOf("\n"));
+        String items = body.substring(header.length());
+        assertBudget("ingestSubmission", 3, 0, post("/v1/submissions")
+                .param("atomic", "true")
+                .contentType("application/x-ndjson")
+                .content(header + "\n{\"game\":" + items),
+                status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void readSubmission() throws Exception {
+        UUID submissionId = createSubmission();
+        // The submission with its intake code fetch-joined
+        MvcResult result = mockMvc.perform(get("/v1/submissions/" + submissionId)).andReturn();
+        assertBudget("getSubmission", 1, 0, get("/v1/submissions/" + submissionId), status().isOk());
+        // Items join the same statement; the customer comes from the cache or one lookup
+        assertBudget("getSubmission", 2, 0, get("/v1/submissions/" + submissionId)
+                .param("expand", "items,intakeCode,customer"),
+                status().isOk());
+        // A matching conditional poll reads only the version
+        assertBudget("getSubmission", 1, 0, get("/v1/submissions/" + submissionId)
+                .header("If-None-Match", result.getResponse().getHeader("ETag")),
+                status().isNotModified());
+        // Just the items query; the existence check only runs when it comes back empty
+        assertBudget("getItemsBySubmissionId", 1, 0, get("/v1/submissions/" + submissionId + "/items"), status().isOk());
+        assertBudget("listItemsBySubmissionId", 1, 0, get("/v1/submissions/" + submissionId + "/items/page")
+                .param("limit", "2"),
+                status().isOk());
+    }
+
+    @Test
+    public void listSubmissions() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createSubmission();
+        }
+        // One query with the intake codes fetch-joined
+        assertBudget("getSubmissionsByCustomer", 1, 0, get("/v1/submissions/customer/" + customerId), status().isOk());
+        // Plus one batch fetch for every submission's items and at most one customer lookup
+        assertBudget("getSubmissionsByCustomer", 3, 0, get("/v1/submissions/customer/" + customerId)
+                .param("expand", "items,intakeCode,customer"),
+                status().isOk());
+        // Items carry only the submission id, which the lazy proxy answers without a query
+        assertBudget("getItemsBySubmissionStatus", 1, 0, get("/v1/submissions/items")
+                .param("status", "submitted-not yet received"),
+                status().isOk());
+        // One query per page with the intake codes fetch-joined, plus one batch fetch for expanded items
+        assertBudget("listSubmissions", 1, 0, get("/v1/submissions")
+                .param("customerId", customerId.toString())
+                .param("limit", "2"),
+                status().isOk());
+        assertBudget("listSubmissions", 2, 0, get("/v1/submissions")
+                .param("customerId", customerId.toString())
+                .param("q", "sub-")
+                .param("expand", "items,intakeCode"),
+                status().isOk());
+        // One projection query per page, first page or not
+        MvcResult page = mockMvc.perform(get("/v1/submissions/items/page")
+                        .param("status", "submitted-not yet received")
+                        .param("limit", "2"))
+                .andReturn();
+        assertBudget("listItemsBySubmissionStatus", 1, 0, get("/v1/submissions/items/page")
+                .param("status", "submitted-not yet received")
+                .param("limit", "2")
+                .param("cursor", json(page).get("nextCursor").asText()),
+                status().isOk());
+    }
+
+    @Test
+    public void exportItemsBySubmissionStatus_singleCursor() throws Exception {
+        createSubmission();
+        // Streams on an async thread, like the customer export
+        awaitStartupJobs();
+        counter.resetAllThreads();
+        MvcResult started = mockMvc.perform(get("/v1/submissions/items/export")
+                        .param("status", "submitted-not yet received"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        counter.assertWithinBudget("exportItemsBySubmissionStatus", 1, 0);
+    }
+
+    // Admin
+
+    @Test
+    public void admin() throws Exception {
+        assertBudget("getCacheStats", 0, 0, get("/v1/admin/caches"), status().isOk());
+        // One existence check per row of the bundled customers.csv (one row, loaded at startup)
+        assertBudget("initializeTestData", 1, 0, post("/v1/admin/init-test-data"), status().isOk());
+    }
+
+    private void assertBudget(String operation, int maxStatements, int maxBatches,
+                              RequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        counter.reset();
+        mockMvc.perform(request).andExpect(expectedStatus);
+        counter.assertWithinBudget(operation, maxStatements, maxBatches);
+    }
+
+    private static void awaitStartupJobs() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (STARTUP_JOBS.contains(thread.getName())) {
+                thread.join(30_000);
+            }
+        }
+    }
+
+    private UUID createSubmission() throws Exception {
+        JsonNode response = json(mockMvc.perform(post("/v1/submissions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(submissionBody(customerId))))
+                .andExpect(status().isCreated())
+                .andReturn());
+        return UUID.fromString(response.get("submission").get("submissionId").asText());
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static Map<String, Object> customerBody(String email) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("phone", "+44 7700 900000");
+        body.put("fullName", "Budget Test Customer");
+        body.put("marketingOptIn", false);
+        return body;
+    }
+
+    private static Map<String, Object> submissionBody(UUID customerId) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < SUBMISSION_ITEMS; i++) {
+            items.add(Map.of("game", "POKEMON", "freeTextLine", "Budget test card " + i, "requestedPhotoSlots", 2));
+        }
+        return Map.of("customerId", customerId.toString(), "serviceLevel", "BRONZE", "items", items);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        // Given: A filter with 10,000 emails added
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+
+        // Then: Every added email is reported as possibly present
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("customer" + i + "@example.com"), "Added email must never be a miss");
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRateNearTarget() {
+        // Given: A filter filled to its expected size at 1% false positives
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("customer" + i + "@example.com");
+        }
+
+        // When: Probing 10,000 emails that were never added
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("someone-else" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        // Then: The observed rate stays close to the target
+        assertTrue(falsePositives < 300, "False positive rate should be near 1%, was " + falsePositives + " in 10000");
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws Exception {
+        // Given: A filter with one email
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        filter.put("a@b.com");
+
+        // When: Writing and reading it back
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        BloomFilter restored = BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Then: The restored filter has the same shape and contents
+        assertTrue(restored.hasSameShape(filter), "Restored filter should have the same shape");
+        assertTrue(restored.mightContain("a@b.com"), "Restored filter should contain the added email");
+    }
+}
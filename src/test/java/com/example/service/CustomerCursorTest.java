@@ -0,0 +1,66 @@
+package com.example.service;
+
+import com.example.model.Customer;
+import com.example.repository.CustomerKeyset;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerCursorTest {
+
+    @Test
+    public void testCursorRoundTrip_CreatedAt() {
+        // Given: A keyset positioned after a customer sorted by created_at desc
+        Customer last = new Customer();
+        last.setCustomerId(UUID.fromString("95240174-43c0-4f75-a716-a2f701e7c9fd"));
+        last.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123456000));
+        CustomerKeyset keyset = CustomerKeyset.firstPage(CustomerKeyset.CREATED_AT, false).after(last);
+
+        // When: Encoding and decoding the cursor
+        String cursor = CustomerService.toCursor(keyset);
+        CustomerKeyset decoded = CustomerService.fromCursor(cursor, CustomerKeyset.CREATED_AT, false);
+
+        // Then: The seek position survives the round trip exactly
+        assertEquals(keyset, decoded, "Decoded keyset should match the encoded one");
+        assertEquals(last.getCreatedAt(), decoded.getAfterSortValue(), "Sort value should keep its type");
+    }
+
+    @Test
+    public void testCursorRoundTrip_FullNameWithSeparator() {
+        // Given: A name containing the cursor separator character
+        Customer last = new Customer();
+        last.setCustomerId(UUID.randomUUID());
+        last.setFullName("Ash | Ketchum");
+        CustomerKeyset keyset = CustomerKeyset.firstPage(CustomerKeyset.FULL_NAME, true).after(last);
+
+        // When: Encoding and decoding the cursor
+        CustomerKeyset decoded = CustomerService.fromCursor(
+            CustomerService.toCursor(keyset), CustomerKeyset.FULL_NAME, true);
+
+        // Then: The full name is preserved
+        assertEquals("Ash | Ketchum", decoded.getAfterSortValue(), "Full name should be preserved");
+        assertEquals(last.getCustomerId(), decoded.getAfterCustomerId(), "Customer ID should be preserved");
+    }
+
+    @Test
+    public void testCursor_RejectedForDifferentSort() {
+        // Given: A cursor issued for created_at desc
+        Customer last = new Customer();
+        last.setCustomerId(UUID.randomUUID());
+        last.setCreatedAt(LocalDateTime.now());
+        String cursor = CustomerService.toCursor(
+            CustomerKeyset.firstPage(CustomerKeyset.CREATED_AT, false).after(last));
+
+        // When/Then: Reusing it for another ordering, or tampering with it, is a bad request
+        assertThrows(ResponseStatusException.class,
+            () -> CustomerService.fromCursor(cursor, CustomerKeyset.UPDATED_AT, false));
+        assertThrows(ResponseStatusException.class,
+            () -> CustomerService.fromCursor(cursor, CustomerKeyset.CREATED_AT, true));
+        assertThrows(ResponseStatusException.class,
+            () -> CustomerService.fromCursor("not-a-cursor", CustomerKeyset.CREATED_AT, false));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.service;
+
+import com.example.model.Customer;
+import com.example.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CustomerSearchIndexTest {
+
+    private static final UUID ASH_ID = UUID.fromString("95240174-43c0-4f75-a716-a2f701e7c9fd");
+    private static final UUID MISTY_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private CustomerRepository repository;
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        // Given: An index built from two customers
+        repository = mock(CustomerRepository.class);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { ASH_ID, "Ash Ketchum", "ash@example.com", "07700900123" });
+        rows.add(new Object[] { MISTY_ID, "Misty Waterflower", "misty@cerulean.gym", null });
+        when(repository.findSearchFieldsNative(any(), anyInt())).thenReturn(rows);
+
+        index = new CustomerSearchIndex();
+        ReflectionTestUtils.setField(index, "customerRepository", repository);
+        ReflectionTestUtils.setField(index, "maxCandidates", 100);
+        ReflectionTestUtils.setField(index, "buildBatchSize", 1000);
+        index.rebuild();
+    }
+
+    @Test
+    public void testCandidates_MatchesSubstringAcrossFields() {
+        assertTrue(index.isReady(), "Index should be ready after rebuild");
+        assertEquals(Set.of(ASH_ID), index.candidates("KETCH").orElseThrow(), "Name substring should match case-insensitively");
+        assertEquals(Set.of(MISTY_ID), index.candidates("cerulean").orElseThrow(), "Email substring should match");
+        assertEquals(Set.of(ASH_ID), index.candidates("900").orElseThrow(), "Phone substring should match");
+        assertFalse(index.candidates("m").isPresent(), "Terms shorter than a trigram should be left to the database");
+        assertTrue(index.candidates("pikachu").orElseThrow().isEmpty(), "Unknown term should match nothing");
+    }
+
+    @Test
+    public void testCandidates_LikeWildcardsFallBackToDatabase() {
+        assertFalse(index.candidates("a%h").isPresent(), "Terms with LIKE wildcards should not be answered by the index");
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        // When: A customer is renamed and another deleted
+        Customer ash = new Customer();
+        ash.setCustomerId(ASH_ID);
+        ash.setFullName("Satoshi");
+        ash.setEmail("ash@example.com");
+        ash.setStatus(Customer.CustomerStatus.ACTIVE);
+        index.index(ash);
+        index.remove(MISTY_ID);
+
+        // Then: Old terms no longer match and new ones do
+        assertTrue(index.candidates("ketchum").orElseThrow().isEmpty(), "Old name should no longer match");
+        assertEquals(Set.of(ASH_ID), index.candidates("satoshi").orElseThrow(), "New name should match");
+        assertTrue(index.candidates("misty").orElseThrow().isEmpty(), "Removed customer should not match");
+        assertEquals(1, index.size(), "Only one customer should remain indexed");
+    }
+
+    @Test
+    public void testSync_PicksUpWritesFromOtherNodes() {
+        // Given: Another node created Brock and deleted Misty since the build
+        UUID brockId = UUID.randomUUID();
+        List<Object[]> changed = new ArrayList<>();
+        changed.add(new Object[] { MISTY_ID, "Misty Waterflower", "misty@cerulean.gym", null, "DELETED" });
+        changed.add(new Object[] { brockId, "Brock Harrison", "brock@pewter.gym", null, "ACTIVE" });
+        LocalDateTime coveredBefore = index.coveredUntil();
+        when(repository.findSearchFieldsNative(eq(coveredBefore), any(), anyInt())).thenReturn(changed);
+
+        // When: The index catches up
+        index.syncWithDatabase();
+
+        // Then: Both changes are reflected and the covered point moves forward
+        assertEquals(Set.of(brockId), index.candidates("pewter").orElseThrow(), "Customer created elsewhere should match");
+        assertTrue(index.candidates("misty").orElseThrow().isEmpty(), "Customer deleted elsewhere should not match");
+        assertTrue(index.coveredUntil().isAfter(coveredBefore), "Covered point should advance after a sync");
+    }
+
+    @Test
+    public void testRank_PrefixBeforeSubstring() {
+        // Given: A third customer whose name only contains the term
+        Customer brock = new Customer();
+        brock.setCustomerId(UUID.randomUUID());
+        brock.setFullName("Brock Mistyson");
+        brock.setEmail("brock@pewter.gym");
+        brock.setStatus(Customer.CustomerStatus.ACTIVE);
+        index.index(brock);
+
+        // When: Ranking for a term that prefixes one name and is inside another
+        List<UUID> ranked = index.rank("misty", 10).orElseThrow();
+
+        // Then: The prefix match ranks first
+        assertEquals(List.of(MISTY_ID, brock.getCustomerId()), ranked, "Prefix match should rank above word match");
+    }
+
+    @Test
+    public void testRank_ShortTermsMatchByPrefix() {
+        // When/Then: One- and two-character terms match the start of a name word, email or phone
+        assertEquals(List.of(MISTY_ID), index.rank("m", 10).orElseThrow(), "Name prefix should match");
+        assertEquals(List.of(MISTY_ID), index.rank("Wa", 10).orElseThrow(), "Later name word should match case-insensitively");
+        assertEquals(List.of(ASH_ID), index.rank("07", 10).orElseThrow(), "Phone prefix should match");
+        assertTrue(index.rank("sh", 10).orElseThrow().isEmpty(), "Substring-only matches should not be returned for short terms");
+        assertEquals(1, index.rank("a", 1).orElseThrow().size(), "Result should be capped at the limit");
+    }
+}
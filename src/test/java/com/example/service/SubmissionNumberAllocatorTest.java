@@ -0,0 +1,85 @@
+package com.example.service;
+
+import com.example.repository.NumberBlockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class SubmissionNumberAllocatorTest {
+
+    @Test
+    public void testFormat_PadsAndEncodesCrockfordBase32() {
+        assertEquals("SUB-000000", SubmissionNumbers.format(0));
+        assertEquals("SUB-00000Z", SubmissionNumbers.format(31));
+        assertEquals("SUB-000010", SubmissionNumbers.format(32));
+        assertEquals("SUB-0000Z8", SubmissionNumbers.format(1000));
+        // Past six digits the number just grows
+        assertEquals("SUB-100000000", SubmissionNumbers.format(1L << 40));
+        assertThrows(IllegalArgumentException.class, () -> SubmissionNumbers.format(-1));
+    }
+
+    @Test
+    public void testNormalizePrefix_UpperCasesAndMapsLookAlikes() {
+        assertEquals("SUB-0011", SubmissionNumbers.normalizePrefix(" sub-oo1l "));
+        assertEquals("SUB-", SubmissionNumbers.normalizePrefix("sub-"));
+        // The code alone gets the prefix, and its look-alikes are mapped too
+        assertEquals("SUB-0000Z8", SubmissionNumbers.normalizePrefix("0000z8"));
+        assertEquals("SUB-000", SubmissionNumbers.normalizePrefix("00O"));
+        // Start of the prefix: only upper-cased
+        assertEquals("SU", SubmissionNumbers.normalizePrefix("su"));
+    }
+
+    @Test
+    public void testNext_UniqueUnderConcurrency_OneClaimPerBlock() throws Exception {
+        // Given: An allocator over an in-memory counter, with small blocks so refills race
+        AtomicLong counter = new AtomicLong(1);
+        AtomicInteger claims = new AtomicInteger();
+        NumberBlockRepository repository = new NumberBlockRepository() {
+            @Override
+            public long claimBlock(String name, int size) {
+                claims.incrementAndGet();
+                return counter.getAndAdd(size);
+            }
+        };
+        SubmissionNumberAllocator allocator = new SubmissionNumberAllocator();
+        ReflectionTestUtils.setField(allocator, "numberBlockRepository", repository);
+        ReflectionTestUtils.setField(allocator, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(allocator, "blockSize", 100);
+        allocator.init();
+
+        // When: Eight threads draw 10,000 numbers each
+        int threads = 8;
+        int perThread = 10_000;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    numbers.add(allocator.next());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then: No duplicates, and the database is hit once per block, not per number
+        assertEquals(threads * perThread, numbers.size(), "Every number should be unique");
+        assertEquals(threads * perThread / 100, claims.get(), "One claim per block of 100");
+    }
+}
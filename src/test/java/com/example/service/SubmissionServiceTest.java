@@ -28,7 +28,7 @@ import static org.junit.jupiter.api.Assertions.*;
     "spring.datasource.url=jdbc:postgresql://localhost:5432/hags_customer",
     "spring.datasource.username=hags_user",
     "spring.datasource.password=hags_password",
-    "spring.jpa.hibernate.ddl-auto=create-drop"
+    "spring.jpa.hibernate.ddl-auto=validate"
 })
 public class SubmissionServiceTest {
 
@@ -47,17 +47,19 @@ public class SubmissionServiceTest {
         // Given: Valid submission data matching the curl request
         UUID customerId = UUID.fromString("95240174-43c0-4f75-a716-a2f701e7c9fd");
         
-        // Create test customer (using create-drop, so need to recreate)
-        // In real tests with update mode, TestDataInitializer will load from CSV
-        com.example.model.Customer customer = new com.example.model.Customer();
-        customer.setCustomerId(customerId);
-        customer.setEmail("a@b.com");
-        customer.setPhone("07817700059");
-        customer.setFullName("andfrew pincherle");
-        customer.setMarketingOptIn(true);
-        customer.setStatus(com.example.model.Customer.CustomerStatus.ACTIVE);
-        customerRepository.save(customer);
-        customerRepository.flush();
+        // The schema comes from the Flyway migrations and TestDataInitializer normally loads
+        // this customer from the CSV; create it only if it is missing
+        if (customerRepository.findByCustomerIdNative(customerId.toString()).isEmpty()) {
+            com.example.model.Customer customer = new com.example.model.Customer();
+            customer.setCustomerId(customerId);
+            customer.setEmail("a@b.com");
+            customer.setPhone("07817700059");
+            customer.setFullName("andfrew pincherle");
+            customer.setMarketingOptIn(true);
+            customer.setStatus(com.example.model.Customer.CustomerStatus.ACTIVE);
+            customerRepository.save(customer);
+            customerRepository.flush();
+        }
         
         SubmissionCreateRequestLite request = new SubmissionCreateRequestLite();
         request.setCustomerId(customerId);